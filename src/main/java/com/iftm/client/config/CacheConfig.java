@@ -0,0 +1,40 @@
+package com.iftm.client.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+@Configuration
+@EnableCaching
+@ConditionalOnProperty(name = "client.cache.enabled", matchIfMissing = true)
+public class CacheConfig {
+
+	public static final String CLIENTS = "clients";
+	public static final String CLIENT_PAGES = "clientPages";
+	public static final String CLIENTS_BY_CPF = "clientsByCpf";
+	public static final String CLIENT_COUNTS = "clientCounts";
+
+	/*
+	 * Escritas no cache (put/evict) só são aplicadas após o commit, para que uma
+	 * leitura concorrente não recoloque no cache um estado ainda não confirmado.
+	 * CLIENT_COUNTS não é invalidado nas escritas: vale até expirar pela própria
+	 * especificação, por isso as contagens são aproximadas.
+	 */
+	@Bean
+	public CacheManager cacheManager(@Value("${client.cache.spec}") String spec,
+			@Value("${client.cache.count-spec}") String countSpec) {
+		CaffeineCacheManager manager = new CaffeineCacheManager(CLIENTS, CLIENT_PAGES, CLIENTS_BY_CPF);
+		manager.setCacheSpecification(spec);
+		manager.setAllowNullValues(false);
+		manager.registerCustomCache(CLIENT_COUNTS, Caffeine.from(countSpec).build());
+		return new TransactionAwareCacheManagerProxy(manager);
+	}
+
+}
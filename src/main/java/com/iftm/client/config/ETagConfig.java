@@ -0,0 +1,56 @@
+package com.iftm.client.config;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/*
+ * ETag pelo hash do corpo nas listas paginadas: a página ainda é montada e
+ * serializada, mas um If-None-Match igual devolve 304 sem reenviar o corpo.
+ * Fica fora de /findAll e /export, que são respostas em streaming e teriam de
+ * ser bufferizadas inteiras, e de /clients/{id}, que já tem ETag pela versão.
+ * O ETag é fraco porque o Tomcat não comprime respostas com ETag forte.
+ *
+ * O mesmo recurso sai em JSON, Smile ou CBOR conforme o Accept (e com ou sem
+ * gzip), então as respostas levam Vary: Accept, Accept-Encoding; sem isso um
+ * cache compartilhado, ou um If-None-Match enviado com outro Accept, poderia
+ * entregar a codificação errada ou um 304 para ela.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = Type.SERVLET)
+public class ETagConfig {
+
+	@Bean
+	public FilterRegistrationBean<ShallowEtagHeaderFilter> shallowEtagHeaderFilter() {
+		ShallowEtagHeaderFilter filter = new VaryingEtagHeaderFilter();
+		filter.setWriteWeakETag(true);
+		FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(filter);
+		registration.addUrlPatterns("/clients", "/clients/find-by-name", "/clients/find-by-income",
+				"/clients/find-by-birth-year", "/clients/find-by-birth-date-after", "/clients/find-by-birth-date",
+				"/clients/search", "/clients/income-stats");
+		return registration;
+	}
+
+	static class VaryingEtagHeaderFilter extends ShallowEtagHeaderFilter {
+
+		@Override
+		protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+				FilterChain filterChain) throws ServletException, IOException {
+			response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+			super.doFilterInternal(request, response, filterChain);
+		}
+
+	}
+
+}
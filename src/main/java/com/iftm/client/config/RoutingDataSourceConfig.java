@@ -0,0 +1,123 @@
+package com.iftm.client.config;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/*
+ * Dois pools (client.datasource.primary.* e client.datasource.replica.*) atrás
+ * de um único DataSource: transações readOnly vão para a réplica, o resto para
+ * o primário. O LazyConnectionDataSourceProxy só pede a conexão física no
+ * primeiro comando, quando o readOnly da transação já está definido (e o
+ * repassa ao Connection.setReadOnly); sem transação a escolha é o primário.
+ *
+ * Depois do commit de uma escrita, as leituras ficam no primário por
+ * primary-after-write (padrão 5s), que deve cobrir o atraso da réplica. A
+ * escrita invalida CLIENTS, CLIENT_PAGES e CLIENTS_BY_CPF, e sem essa janela a
+ * leitura seguinte recolocaria no cache, por até expireAfterWrite, a versão
+ * antiga lida da réplica (e um GET logo após o PUT devolveria o @Version
+ * anterior, fazendo o If-Match seguinte falhar com 412).
+ *
+ * Os pools não são beans: cada DataSource registrado dispara a inicialização
+ * de schema do Spring Boot, que pede o DataSource principal ainda em criação.
+ */
+@Configuration
+@ConditionalOnProperty(name = "client.datasource.routing.enabled")
+public class RoutingDataSourceConfig {
+
+	enum Target {
+		PRIMARY, REPLICA
+	}
+
+	@Bean
+	@Primary
+	public DataSource routingDataSource(Environment environment,
+			@Value("${client.datasource.routing.migrate-replica:false}") boolean migrateReplica,
+			@Value("${client.datasource.routing.primary-after-write:5s}") Duration primaryAfterWrite) {
+		Binder binder = Binder.get(environment);
+		HikariDataSource primary = pool(binder, "client.datasource.primary");
+		HikariDataSource replica = pool(binder, "client.datasource.replica");
+		// em produção o schema chega à réplica pela replicação; com dois bancos locais as migrações rodam aqui
+		if (migrateReplica) {
+			Flyway.configure().dataSource(replica).load().migrate();
+		}
+		return new RoutingDataSource(primary, replica, primaryAfterWrite);
+	}
+
+	private static HikariDataSource pool(Binder binder, String prefix) {
+		return binder.bind(prefix, Bindable.ofInstance(new HikariDataSource()))
+				.orElseThrow(() -> new IllegalStateException("Missing " + prefix + ".* properties"));
+	}
+
+	static class RoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+		private final HikariDataSource primary;
+		private final HikariDataSource replica;
+
+		RoutingDataSource(HikariDataSource primary, HikariDataSource replica, Duration primaryAfterWrite) {
+			this.primary = primary;
+			this.replica = replica;
+			ReadOnlyRoutingDataSource routing = new ReadOnlyRoutingDataSource(primaryAfterWrite);
+			routing.setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+			routing.setDefaultTargetDataSource(primary);
+			routing.afterPropertiesSet();
+			setTargetDataSource(routing);
+			afterPropertiesSet();
+		}
+
+		@Override
+		public void close() {
+			replica.close();
+			primary.close();
+		}
+
+	}
+
+	static class ReadOnlyRoutingDataSource extends AbstractRoutingDataSource {
+
+		private final long primaryAfterWriteNanos;
+
+		/* Instante (System.nanoTime) até o qual as leituras continuam no primário. */
+		private volatile long primaryUntil = System.nanoTime();
+
+		ReadOnlyRoutingDataSource(Duration primaryAfterWrite) {
+			this.primaryAfterWriteNanos = primaryAfterWrite.toNanos();
+		}
+
+		@Override
+		protected Object determineCurrentLookupKey() {
+			if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+				if (primaryAfterWriteNanos > 0 && TransactionSynchronizationManager.isSynchronizationActive()) {
+					TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+						@Override
+						public void afterCommit() {
+							primaryUntil = System.nanoTime() + primaryAfterWriteNanos;
+						}
+					});
+				}
+				return Target.PRIMARY;
+			}
+			return System.nanoTime() - primaryUntil < 0 ? Target.PRIMARY : Target.REPLICA;
+		}
+
+	}
+
+}
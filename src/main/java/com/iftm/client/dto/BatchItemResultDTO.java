@@ -0,0 +1,61 @@
+package com.iftm.client.dto;
+
+import java.io.Serializable;
+
+public class BatchItemResultDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	public static final String CREATED = "CREATED";
+	public static final String UPDATED = "UPDATED";
+	public static final String DELETED = "DELETED";
+	public static final String NOT_FOUND = "NOT_FOUND";
+	public static final String FAILED = "FAILED";
+
+	private Integer index;
+	private Long id;
+	private String status;
+	private String message;
+
+	public BatchItemResultDTO() {
+	}
+
+	public BatchItemResultDTO(Integer index, Long id, String status, String message) {
+		this.index = index;
+		this.id = id;
+		this.status = status;
+		this.message = message;
+	}
+
+	public Integer getIndex() {
+		return index;
+	}
+
+	public void setIndex(Integer index) {
+		this.index = index;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getStatus() {
+		return status;
+	}
+
+	public void setStatus(String status) {
+		this.status = status;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	public void setMessage(String message) {
+		this.message = message;
+	}
+
+}
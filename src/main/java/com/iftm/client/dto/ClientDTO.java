@@ -3,6 +3,7 @@ package com.iftm.client.dto;
 import java.io.Serializable;
 import java.time.Instant;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.iftm.client.entities.Client;
 
 public class ClientDTO implements Serializable {
@@ -15,6 +16,10 @@ public class ClientDTO implements Serializable {
 	private Instant birthDate;
 	private Integer children;
 	
+	/* Vai no cabeçalho ETag, não no corpo. */
+	@JsonIgnore
+	private Long version;
+	
 	public ClientDTO() {
 	}
 
@@ -26,6 +31,12 @@ public class ClientDTO implements Serializable {
 		this.birthDate = birthDate;
 		this.children = children;
 	}
+
+	public ClientDTO(Long id, String name, String cpf, Double income, Instant birthDate, Integer children,
+			Long version) {
+		this(id, name, cpf, income, birthDate, children);
+		this.version = version;
+	}
 	
 	public ClientDTO(Client entity) {
 		this.id = entity.getId();
@@ -34,6 +45,7 @@ public class ClientDTO implements Serializable {
 		this.income = entity.getIncome();
 		this.birthDate = entity.getBirthDate();
 		this.children = entity.getChildren();
+		this.version = entity.getVersion();
 	}
 
 	public Long getId() {
@@ -84,6 +96,14 @@ public class ClientDTO implements Serializable {
 		this.children = children;
 	}
 	
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+	
 	public Client toEntity() {
 		return new Client(id, name, cpf, income, birthDate, children);
 	}
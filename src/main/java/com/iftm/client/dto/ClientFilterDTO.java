@@ -0,0 +1,118 @@
+package com.iftm.client.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/*
+ * Filtros de /clients/search, todos opcionais e combinados com AND. after,
+ * before e between seguem o formato de /clients/find-by-birth-date. Serve de
+ * chave no cache de páginas, por isso tem equals/hashCode.
+ */
+public class ClientFilterDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private String name;
+	private Double minIncome;
+	private Double maxIncome;
+	private String after;
+	private String before;
+	private String between;
+	private Integer children;
+
+	public ClientFilterDTO() {
+	}
+
+	public ClientFilterDTO(String name, Double minIncome, Double maxIncome, String after, String before,
+			String between, Integer children) {
+		this.name = name;
+		this.minIncome = minIncome;
+		this.maxIncome = maxIncome;
+		this.after = after;
+		this.before = before;
+		this.between = between;
+		this.children = children;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public Double getMinIncome() {
+		return minIncome;
+	}
+
+	public void setMinIncome(Double minIncome) {
+		this.minIncome = minIncome;
+	}
+
+	public Double getMaxIncome() {
+		return maxIncome;
+	}
+
+	public void setMaxIncome(Double maxIncome) {
+		this.maxIncome = maxIncome;
+	}
+
+	public String getAfter() {
+		return after;
+	}
+
+	public void setAfter(String after) {
+		this.after = after;
+	}
+
+	public String getBefore() {
+		return before;
+	}
+
+	public void setBefore(String before) {
+		this.before = before;
+	}
+
+	public String getBetween() {
+		return between;
+	}
+
+	public void setBetween(String between) {
+		this.between = between;
+	}
+
+	public Integer getChildren() {
+		return children;
+	}
+
+	public void setChildren(Integer children) {
+		this.children = children;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof ClientFilterDTO)) {
+			return false;
+		}
+		ClientFilterDTO other = (ClientFilterDTO) obj;
+		return Objects.equals(name, other.name) && Objects.equals(minIncome, other.minIncome)
+				&& Objects.equals(maxIncome, other.maxIncome) && Objects.equals(after, other.after)
+				&& Objects.equals(before, other.before) && Objects.equals(between, other.between)
+				&& Objects.equals(children, other.children);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(name, minIncome, maxIncome, after, before, between, children);
+	}
+
+	@Override
+	public String toString() {
+		return "ClientFilterDTO [name=" + name + ", minIncome=" + minIncome + ", maxIncome=" + maxIncome + ", after="
+				+ after + ", before=" + before + ", between=" + between + ", children=" + children + "]";
+	}
+
+}
@@ -0,0 +1,36 @@
+package com.iftm.client.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+public class CountDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private Long count;
+	private Instant countedAt;
+
+	public CountDTO() {
+	}
+
+	public CountDTO(Long count, Instant countedAt) {
+		this.count = count;
+		this.countedAt = countedAt;
+	}
+
+	public Long getCount() {
+		return count;
+	}
+
+	public void setCount(Long count) {
+		this.count = count;
+	}
+
+	public Instant getCountedAt() {
+		return countedAt;
+	}
+
+	public void setCountedAt(Instant countedAt) {
+		this.countedAt = countedAt;
+	}
+
+}
@@ -0,0 +1,86 @@
+package com.iftm.client.dto;
+
+import java.io.Serializable;
+
+public class IncomeBucketDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private Double lowerBound;
+	private Double upperBound;
+	private Long count;
+	private Double sum;
+	private Double average;
+	private Double min;
+	private Double max;
+
+	public IncomeBucketDTO() {
+	}
+
+	public IncomeBucketDTO(Double lowerBound, Double upperBound, Long count, Double sum, Double average, Double min,
+			Double max) {
+		this.lowerBound = lowerBound;
+		this.upperBound = upperBound;
+		this.count = count;
+		this.sum = sum;
+		this.average = average;
+		this.min = min;
+		this.max = max;
+	}
+
+	public Double getLowerBound() {
+		return lowerBound;
+	}
+
+	public void setLowerBound(Double lowerBound) {
+		this.lowerBound = lowerBound;
+	}
+
+	public Double getUpperBound() {
+		return upperBound;
+	}
+
+	public void setUpperBound(Double upperBound) {
+		this.upperBound = upperBound;
+	}
+
+	public Long getCount() {
+		return count;
+	}
+
+	public void setCount(Long count) {
+		this.count = count;
+	}
+
+	public Double getSum() {
+		return sum;
+	}
+
+	public void setSum(Double sum) {
+		this.sum = sum;
+	}
+
+	public Double getAverage() {
+		return average;
+	}
+
+	public void setAverage(Double average) {
+		this.average = average;
+	}
+
+	public Double getMin() {
+		return min;
+	}
+
+	public void setMin(Double min) {
+		this.min = min;
+	}
+
+	public Double getMax() {
+		return max;
+	}
+
+	public void setMax(Double max) {
+		this.max = max;
+	}
+
+}
@@ -0,0 +1,87 @@
+package com.iftm.client.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+public class IncomeStatsDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private Long count;
+	private Double sum;
+	private Double average;
+	private Double min;
+	private Double max;
+	private Double bucketSize;
+	private List<IncomeBucketDTO> buckets;
+
+	public IncomeStatsDTO() {
+	}
+
+	public IncomeStatsDTO(Long count, Double sum, Double average, Double min, Double max, Double bucketSize,
+			List<IncomeBucketDTO> buckets) {
+		this.count = count;
+		this.sum = sum;
+		this.average = average;
+		this.min = min;
+		this.max = max;
+		this.bucketSize = bucketSize;
+		this.buckets = buckets;
+	}
+
+	public Long getCount() {
+		return count;
+	}
+
+	public void setCount(Long count) {
+		this.count = count;
+	}
+
+	public Double getSum() {
+		return sum;
+	}
+
+	public void setSum(Double sum) {
+		this.sum = sum;
+	}
+
+	public Double getAverage() {
+		return average;
+	}
+
+	public void setAverage(Double average) {
+		this.average = average;
+	}
+
+	public Double getMin() {
+		return min;
+	}
+
+	public void setMin(Double min) {
+		this.min = min;
+	}
+
+	public Double getMax() {
+		return max;
+	}
+
+	public void setMax(Double max) {
+		this.max = max;
+	}
+
+	public Double getBucketSize() {
+		return bucketSize;
+	}
+
+	public void setBucketSize(Double bucketSize) {
+		this.bucketSize = bucketSize;
+	}
+
+	public List<IncomeBucketDTO> getBuckets() {
+		return buckets;
+	}
+
+	public void setBuckets(List<IncomeBucketDTO> buckets) {
+		this.buckets = buckets;
+	}
+
+}
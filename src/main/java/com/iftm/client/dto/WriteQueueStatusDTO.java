@@ -0,0 +1,76 @@
+package com.iftm.client.dto;
+
+import java.io.Serializable;
+
+public class WriteQueueStatusDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private Integer pending;
+	private Integer capacity;
+	private Long accepted;
+	private Long completed;
+	private Long failed;
+	private Long rejected;
+
+	public WriteQueueStatusDTO() {
+	}
+
+	public WriteQueueStatusDTO(Integer pending, Integer capacity, Long accepted, Long completed, Long failed,
+			Long rejected) {
+		this.pending = pending;
+		this.capacity = capacity;
+		this.accepted = accepted;
+		this.completed = completed;
+		this.failed = failed;
+		this.rejected = rejected;
+	}
+
+	public Integer getPending() {
+		return pending;
+	}
+
+	public void setPending(Integer pending) {
+		this.pending = pending;
+	}
+
+	public Integer getCapacity() {
+		return capacity;
+	}
+
+	public void setCapacity(Integer capacity) {
+		this.capacity = capacity;
+	}
+
+	public Long getAccepted() {
+		return accepted;
+	}
+
+	public void setAccepted(Long accepted) {
+		this.accepted = accepted;
+	}
+
+	public Long getCompleted() {
+		return completed;
+	}
+
+	public void setCompleted(Long completed) {
+		this.completed = completed;
+	}
+
+	public Long getFailed() {
+		return failed;
+	}
+
+	public void setFailed(Long failed) {
+		this.failed = failed;
+	}
+
+	public Long getRejected() {
+		return rejected;
+	}
+
+	public void setRejected(Long rejected) {
+		this.rejected = rejected;
+	}
+
+}
@@ -0,0 +1,57 @@
+package com.iftm.client.dto;
+
+import java.io.Serializable;
+
+public class WriteStatusDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	public static final String QUEUED = "QUEUED";
+
+	private String trackingId;
+	private String status;
+	private Long id;
+	private String message;
+
+	public WriteStatusDTO() {
+	}
+
+	public WriteStatusDTO(String trackingId, String status, Long id, String message) {
+		this.trackingId = trackingId;
+		this.status = status;
+		this.id = id;
+		this.message = message;
+	}
+
+	public String getTrackingId() {
+		return trackingId;
+	}
+
+	public void setTrackingId(String trackingId) {
+		this.trackingId = trackingId;
+	}
+
+	public String getStatus() {
+		return status;
+	}
+
+	public void setStatus(String status) {
+		this.status = status;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	public void setMessage(String message) {
+		this.message = message;
+	}
+
+}
@@ -7,7 +7,9 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Version;
 
 @Entity
 @Table(name = "tb_client")
@@ -15,7 +17,8 @@ public class Client implements Serializable {
 	private static final long serialVersionUID = 1L;
 	
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "client_seq")
+	@SequenceGenerator(name = "client_seq", sequenceName = "tb_client_seq", allocationSize = 50)
 	private Long id;
 	private String name;
 	private String cpf;
@@ -23,13 +26,20 @@ public class Client implements Serializable {
 	private Instant birthDate;
 	private Integer children;
 	
+	/*
+	 * Primitivo de propósito: com Long nulo o Spring Data e o Hibernate tratam
+	 * um Client com id e sem versão como novo e o inserem em vez de atualizar.
+	 */
+	@Version
+	private long version;
+	
 	public Client() {
 	}
 
 	public Client(Long id, String name, String cpf, Double income, Instant birthDate, Integer children) {
 		this.id = id;
 		this.name = name;
-		this.cpf = cpf;
+		this.cpf = normalizeCpf(cpf);
 		this.income = income;
 		this.birthDate = birthDate;
 		this.children = children;
@@ -56,7 +66,7 @@ public class Client implements Serializable {
 	}
 
 	public void setCpf(String cpf) {
-		this.cpf = cpf;
+		this.cpf = normalizeCpf(cpf);
 	}
 
 	public Double getIncome() {
@@ -83,6 +93,14 @@ public class Client implements Serializable {
 		this.children = children;
 	}
 
+	public long getVersion() {
+		return version;
+	}
+
+	public void setVersion(long version) {
+		this.version = version;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -107,4 +125,10 @@ public class Client implements Serializable {
 			return false;
 		return true;
 	}
+
+	/* CPF é gravado só com dígitos ("106.192.448-81" -> "10619244881"). */
+	public static String normalizeCpf(String cpf) {
+		return cpf == null ? null : cpf.replaceAll("[^0-9]", "");
+	}
+
 }
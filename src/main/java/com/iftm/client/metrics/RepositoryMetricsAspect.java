@@ -0,0 +1,79 @@
+package com.iftm.client.metrics;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/*
+ * Tempo e quantidade de linhas de cada método do ClientRepository, além de
+ * um log para chamadas acima de client.metrics.slow-query-threshold.
+ */
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+
+	private static final Logger log = LoggerFactory.getLogger(RepositoryMetricsAspect.class);
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@Value("${client.metrics.slow-query-threshold:200ms}")
+	private Duration slowQueryThreshold;
+
+	@Around("execution(* *(..)) && this(com.iftm.client.repositories.ClientRepository)")
+	public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+		String method = joinPoint.getSignature().getName();
+		String outcome = "SUCCESS";
+		long start = System.nanoTime();
+		try {
+			Object result = joinPoint.proceed();
+			Integer rows = rows(result);
+			if (rows != null) {
+				DistributionSummary.builder("client.repository.rows").tag("method", method)
+						.description("Rows returned by ClientRepository methods").register(registry).record(rows);
+			}
+			return result;
+		} catch (Throwable e) {
+			outcome = "ERROR";
+			throw e;
+		} finally {
+			long elapsed = System.nanoTime() - start;
+			Timer.builder("client.repository").tag("method", method).tag("outcome", outcome)
+					.description("ClientRepository method invocations").register(registry)
+					.record(elapsed, TimeUnit.NANOSECONDS);
+			if (elapsed > slowQueryThreshold.toNanos()) {
+				log.warn("Slow repository call ClientRepository.{} took {} ms", method,
+						TimeUnit.NANOSECONDS.toMillis(elapsed));
+			}
+		}
+	}
+
+	private Integer rows(Object result) {
+		if (result instanceof Slice) {
+			return ((Slice<?>) result).getNumberOfElements();
+		}
+		if (result instanceof Collection) {
+			return ((Collection<?>) result).size();
+		}
+		if (result instanceof Optional) {
+			return ((Optional<?>) result).isPresent() ? 1 : 0;
+		}
+		return null;
+	}
+
+}
@@ -0,0 +1,138 @@
+package com.iftm.client.metrics;
+
+import java.util.function.Consumer;
+
+/*
+ * Contadores de SQL de um trecho de execução na thread atual: comandos
+ * preparados pelo Hibernate (um lote JDBC conta uma vez), entidades carregadas
+ * e flushes. begin()/end() podem ser aninhados; cada comando conta em todos os
+ * escopos abertos. Fora de um escopo nada é contado.
+ */
+public final class SqlStatistics {
+
+	private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+	private final SqlStatistics parent;
+	private final Consumer<SqlStatistics> onChange;
+
+	private int statements;
+	private int selects;
+	private int inserts;
+	private int updates;
+	private int deletes;
+	private int entitiesLoaded;
+	private int flushes;
+	private int entitiesFlushed;
+
+	private SqlStatistics(SqlStatistics parent, Consumer<SqlStatistics> onChange) {
+		this.parent = parent;
+		this.onChange = onChange;
+	}
+
+	public static SqlStatistics begin() {
+		return begin(null);
+	}
+
+	/* onChange roda na própria thread a cada contagem (usado para o MDC). */
+	public static SqlStatistics begin(Consumer<SqlStatistics> onChange) {
+		SqlStatistics statistics = new SqlStatistics(CURRENT.get(), onChange);
+		CURRENT.set(statistics);
+		return statistics;
+	}
+
+	public void end() {
+		if (CURRENT.get() != this) {
+			throw new IllegalStateException("SqlStatistics scopes must be ended in reverse order");
+		}
+		if (parent == null) {
+			CURRENT.remove();
+		} else {
+			CURRENT.set(parent);
+		}
+	}
+
+	static void statement(String sql) {
+		for (SqlStatistics s = CURRENT.get(); s != null; s = s.parent) {
+			s.statements++;
+			if (startsWith(sql, "select") || startsWith(sql, "with")) {
+				s.selects++;
+			} else if (startsWith(sql, "insert")) {
+				s.inserts++;
+			} else if (startsWith(sql, "update")) {
+				s.updates++;
+			} else if (startsWith(sql, "delete")) {
+				s.deletes++;
+			}
+			s.changed();
+		}
+	}
+
+	static void entityLoaded() {
+		for (SqlStatistics s = CURRENT.get(); s != null; s = s.parent) {
+			s.entitiesLoaded++;
+			s.changed();
+		}
+	}
+
+	static void flushed(int entities) {
+		for (SqlStatistics s = CURRENT.get(); s != null; s = s.parent) {
+			s.flushes++;
+			s.entitiesFlushed += entities;
+			s.changed();
+		}
+	}
+
+	private void changed() {
+		if (onChange != null) {
+			onChange.accept(this);
+		}
+	}
+
+	private static boolean startsWith(String sql, String keyword) {
+		int i = 0;
+		while (i < sql.length() && Character.isWhitespace(sql.charAt(i))) {
+			i++;
+		}
+		return sql.regionMatches(true, i, keyword, 0, keyword.length());
+	}
+
+	public int getStatements() {
+		return statements;
+	}
+
+	public int getSelects() {
+		return selects;
+	}
+
+	public int getInserts() {
+		return inserts;
+	}
+
+	public int getUpdates() {
+		return updates;
+	}
+
+	public int getDeletes() {
+		return deletes;
+	}
+
+	public int getEntitiesLoaded() {
+		return entitiesLoaded;
+	}
+
+	public int getFlushes() {
+		return flushes;
+	}
+
+	public int getEntitiesFlushed() {
+		return entitiesFlushed;
+	}
+
+	@Override
+	public String toString() {
+		return "statements=" + statements + " (select=" + selects + ", insert=" + inserts + ", update=" + updates
+				+ ", delete=" + deletes + "), entitiesLoaded=" + entitiesLoaded + ", flushes=" + flushes
+				+ ", entitiesFlushed=" + entitiesFlushed;
+	}
+
+}
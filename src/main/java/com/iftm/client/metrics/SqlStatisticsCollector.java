@@ -0,0 +1,75 @@
+package com.iftm.client.metrics;
+
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.BaseSessionEventListener;
+import org.hibernate.boot.Metadata;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+/*
+ * Liga o Hibernate aos contadores de SqlStatistics: StatementInspector para
+ * cada comando preparado, PostLoad para entidades carregadas e um
+ * SessionEventListener (criado pelo Hibernate a cada sessão) para os flushes.
+ */
+@Component
+@ConditionalOnProperty(name = "client.diagnostics.enabled")
+public class SqlStatisticsCollector
+		implements HibernatePropertiesCustomizer, StatementInspector, PostLoadEventListener, Integrator {
+
+	private static final long serialVersionUID = 1L;
+
+	@Override
+	public void customize(Map<String, Object> hibernateProperties) {
+		hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+		hibernateProperties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, FlushListener.class.getName());
+		hibernateProperties.put(EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER,
+				(IntegratorProvider) () -> List.of(this));
+	}
+
+	@Override
+	public String inspect(String sql) {
+		SqlStatistics.statement(sql);
+		return sql;
+	}
+
+	@Override
+	public void onPostLoad(PostLoadEvent event) {
+		SqlStatistics.entityLoaded();
+	}
+
+	@Override
+	public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory,
+			SessionFactoryServiceRegistry serviceRegistry) {
+		serviceRegistry.getService(EventListenerRegistry.class).appendListeners(EventType.POST_LOAD, this);
+	}
+
+	@Override
+	public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+	}
+
+	public static class FlushListener extends BaseSessionEventListener {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public void flushEnd(int numberOfEntities, int numberOfCollections) {
+			SqlStatistics.flushed(numberOfEntities);
+		}
+
+	}
+
+}
@@ -0,0 +1,105 @@
+package com.iftm.client.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/*
+ * /actuator/sqlstats: comandos SQL, entidades carregadas e flushes por rota
+ * (totais, média e pior requisição), mais as estatísticas globais do Hibernate
+ * quando hibernate.generate_statistics está ligado. DELETE zera as rotas.
+ */
+@Component
+@Endpoint(id = "sqlstats")
+@ConditionalOnProperty(name = "client.diagnostics.enabled")
+public class SqlStatisticsEndpoint {
+
+	private final Map<String, RouteStatistics> routes = new ConcurrentHashMap<>();
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	public void record(String route, SqlStatistics statistics) {
+		routes.computeIfAbsent(route, key -> new RouteStatistics()).add(statistics);
+	}
+
+	@ReadOperation
+	public Map<String, Object> sqlStatistics() {
+		Map<String, Object> byRoute = new TreeMap<>();
+		routes.forEach((route, statistics) -> byRoute.put(route, statistics.toMap()));
+		Map<String, Object> body = new LinkedHashMap<>();
+		body.put("routes", byRoute);
+		body.put("hibernate", hibernateStatistics());
+		return body;
+	}
+
+	@DeleteOperation
+	public void reset() {
+		routes.clear();
+	}
+
+	private Map<String, Object> hibernateStatistics() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		Map<String, Object> body = new LinkedHashMap<>();
+		body.put("enabled", statistics.isStatisticsEnabled());
+		if (statistics.isStatisticsEnabled()) {
+			body.put("prepareStatementCount", statistics.getPrepareStatementCount());
+			body.put("queryExecutionCount", statistics.getQueryExecutionCount());
+			body.put("queryExecutionMaxTime", statistics.getQueryExecutionMaxTime());
+			body.put("queryExecutionMaxTimeQueryString", statistics.getQueryExecutionMaxTimeQueryString());
+			body.put("entityLoadCount", statistics.getEntityLoadCount());
+			body.put("entityFetchCount", statistics.getEntityFetchCount());
+			body.put("entityInsertCount", statistics.getEntityInsertCount());
+			body.put("entityUpdateCount", statistics.getEntityUpdateCount());
+			body.put("entityDeleteCount", statistics.getEntityDeleteCount());
+			body.put("flushCount", statistics.getFlushCount());
+			body.put("transactionCount", statistics.getTransactionCount());
+		}
+		return body;
+	}
+
+	private static class RouteStatistics {
+
+		private final LongAdder requests = new LongAdder();
+		private final LongAdder statements = new LongAdder();
+		private final AtomicInteger maxStatements = new AtomicInteger();
+		private final LongAdder entitiesLoaded = new LongAdder();
+		private final LongAdder flushes = new LongAdder();
+
+		void add(SqlStatistics statistics) {
+			requests.increment();
+			statements.add(statistics.getStatements());
+			maxStatements.accumulateAndGet(statistics.getStatements(), Math::max);
+			entitiesLoaded.add(statistics.getEntitiesLoaded());
+			flushes.add(statistics.getFlushes());
+		}
+
+		Map<String, Object> toMap() {
+			long count = requests.sum();
+			Map<String, Object> body = new LinkedHashMap<>();
+			body.put("requests", count);
+			body.put("statements", statements.sum());
+			body.put("statementsPerRequest", count == 0 ? 0.0 : (double) statements.sum() / count);
+			body.put("maxStatements", maxStatements.get());
+			body.put("entitiesLoaded", entitiesLoaded.sum());
+			body.put("flushes", flushes.sum());
+			return body;
+		}
+
+	}
+
+}
@@ -0,0 +1,75 @@
+package com.iftm.client.metrics;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/*
+ * Abre um escopo de SqlStatistics por requisição. Os contadores ficam no MDC
+ * (sql.statements, sql.entitiesLoaded, sql.flushes) enquanto a requisição
+ * roda, vão para o endpoint /actuator/sqlstats agrupados por rota no fim, e
+ * acima de statement-warn-threshold comandos a requisição gera um aviso.
+ * O corpo assíncrono do /export roda em outra thread e não é contado.
+ */
+@Component
+@ConditionalOnProperty(name = "client.diagnostics.enabled")
+@ConditionalOnWebApplication(type = Type.SERVLET)
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+	private static final Logger log = LoggerFactory.getLogger(SqlStatisticsFilter.class);
+
+	public static final String MDC_STATEMENTS = "sql.statements";
+	public static final String MDC_ENTITIES_LOADED = "sql.entitiesLoaded";
+	public static final String MDC_FLUSHES = "sql.flushes";
+
+	@Value("${client.diagnostics.statement-warn-threshold:20}")
+	private int statementWarnThreshold;
+
+	@Autowired
+	private SqlStatisticsEndpoint endpoint;
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		SqlStatistics statistics = SqlStatistics.begin(SqlStatisticsFilter::updateMdc);
+		updateMdc(statistics);
+		try {
+			chain.doFilter(request, response);
+		} finally {
+			statistics.end();
+			Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+			String route = request.getMethod() + " " + (pattern != null ? pattern : "UNMAPPED");
+			endpoint.record(route, statistics);
+			if (statistics.getStatements() > statementWarnThreshold) {
+				log.warn("{} issued {}", route, statistics);
+			} else {
+				log.debug("{} issued {}", route, statistics);
+			}
+			MDC.remove(MDC_STATEMENTS);
+			MDC.remove(MDC_ENTITIES_LOADED);
+			MDC.remove(MDC_FLUSHES);
+		}
+	}
+
+	private static void updateMdc(SqlStatistics statistics) {
+		MDC.put(MDC_STATEMENTS, String.valueOf(statistics.getStatements()));
+		MDC.put(MDC_ENTITIES_LOADED, String.valueOf(statistics.getEntitiesLoaded()));
+		MDC.put(MDC_FLUSHES, String.valueOf(statistics.getFlushes()));
+	}
+
+}
@@ -0,0 +1,121 @@
+package com.iftm.client.repositories;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Objects;
+
+/*
+ * Intervalo semiaberto [start, end) de birthDate; um limite nulo fica aberto.
+ * Os limites vêm de um ano ("1990") ou de uma data ISO ("1990-05-17"), sempre
+ * em UTC: after exclui o ano/dia informado, before também, e between inclui os
+ * dois extremos.
+ *
+ * Atenção: /clients/find-by-birth-date?after=1990 (este intervalo) começa em
+ * 1991, enquanto o antigo /clients/find-by-birth-date-after?year=1990 usa
+ * BirthYears.startOf e inclui 1990 desde 1º de janeiro. Os dois ficam assim
+ * para não mudar a resposta de quem já chama o endpoint antigo.
+ */
+public final class BirthDateRange {
+
+	private final Instant start;
+	private final Instant end;
+
+	public BirthDateRange(Instant start, Instant end) {
+		this.start = start;
+		this.end = end;
+	}
+
+	public static BirthDateRange after(String value) {
+		return new BirthDateRange(endOf(value), null);
+	}
+
+	public static BirthDateRange before(String value) {
+		return new BirthDateRange(null, startOf(value));
+	}
+
+	public static BirthDateRange between(String from, String to) {
+		return new BirthDateRange(startOf(from), endOf(to));
+	}
+
+	/* Combina dois intervalos, ficando com o limite mais restritivo de cada lado. */
+	public BirthDateRange and(BirthDateRange other) {
+		Instant newStart = start == null ? other.start
+				: other.start == null || start.isAfter(other.start) ? start : other.start;
+		Instant newEnd = end == null ? other.end : other.end == null || end.isBefore(other.end) ? end : other.end;
+		return new BirthDateRange(newStart, newEnd);
+	}
+
+	public Instant getStart() {
+		return start;
+	}
+
+	public Instant getEnd() {
+		return end;
+	}
+
+	public boolean isEmpty() {
+		return start != null && end != null && !start.isBefore(end);
+	}
+
+	private static Instant startOf(String value) {
+		String token = value.trim();
+		int year = parseYear(token);
+		return year >= 0 ? BirthYears.startOf(year) : parseDate(token).atStartOfDay(ZoneOffset.UTC).toInstant();
+	}
+
+	private static Instant endOf(String value) {
+		String token = value.trim();
+		int year = parseYear(token);
+		return year >= 0 ? BirthYears.endOf(year)
+				: parseDate(token).plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+	}
+
+	/* Ano com 1 a 4 dígitos, sem criar objetos; -1 se não for um ano. */
+	private static int parseYear(String token) {
+		if (token.isEmpty() || token.length() > 4) {
+			return -1;
+		}
+		int year = 0;
+		for (int i = 0; i < token.length(); i++) {
+			char c = token.charAt(i);
+			if (c < '0' || c > '9') {
+				return -1;
+			}
+			year = year * 10 + (c - '0');
+		}
+		return year;
+	}
+
+	private static LocalDate parseDate(String token) {
+		try {
+			return LocalDate.parse(token);
+		} catch (DateTimeParseException e) {
+			throw new IllegalArgumentException("Expected a year (yyyy) or a date (yyyy-MM-dd): " + token, e);
+		}
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof BirthDateRange)) {
+			return false;
+		}
+		BirthDateRange other = (BirthDateRange) obj;
+		return Objects.equals(start, other.start) && Objects.equals(end, other.end);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(start, end);
+	}
+
+	@Override
+	public String toString() {
+		return "[" + start + ", " + end + ")";
+	}
+
+}
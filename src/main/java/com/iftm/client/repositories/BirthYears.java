@@ -0,0 +1,65 @@
+package com.iftm.client.repositories;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/*
+ * Início de cada ano em UTC, calculado uma vez só para a faixa de anos que os
+ * cadastros usam; fora dela o valor é calculado na hora. O vetor nunca é
+ * alterado depois de montado, então pode ser lido por qualquer thread.
+ * Anos fora de 1..9999 (os de quatro dígitos) são recusados com
+ * IllegalArgumentException; o ClientService confere antes com isValid.
+ */
+public final class BirthYears {
+
+	public static final int MIN_YEAR = 1900;
+	public static final int MAX_YEAR = 2100;
+
+	private static final int MIN_VALID_YEAR = 1;
+	private static final int MAX_VALID_YEAR = 9999;
+
+	private static final Instant[] STARTS = new Instant[MAX_YEAR - MIN_YEAR + 2];
+
+	static {
+		for (int i = 0; i < STARTS.length; i++) {
+			STARTS[i] = compute(MIN_YEAR + i);
+		}
+	}
+
+	private BirthYears() {
+	}
+
+	/* 1º de janeiro do ano, 00:00 UTC. */
+	public static Instant startOf(int year) {
+		checkYear(year);
+		return start(year);
+	}
+
+	/* 1º de janeiro do ano seguinte: fim exclusivo do intervalo [startOf, endOf). */
+	public static Instant endOf(int year) {
+		checkYear(year);
+		return start(year + 1);
+	}
+
+	public static boolean isValid(int year) {
+		return year >= MIN_VALID_YEAR && year <= MAX_VALID_YEAR;
+	}
+
+	private static void checkYear(int year) {
+		if (!isValid(year)) {
+			throw new IllegalArgumentException(
+					"Year must be between " + MIN_VALID_YEAR + " and " + MAX_VALID_YEAR + ": " + year);
+		}
+	}
+
+	private static Instant start(int year) {
+		int index = year - MIN_YEAR;
+		return index >= 0 && index < STARTS.length ? STARTS[index] : compute(year);
+	}
+
+	private static Instant compute(int year) {
+		return LocalDate.of(year, 1, 1).atStartOfDay(ZoneOffset.UTC).toInstant();
+	}
+
+}
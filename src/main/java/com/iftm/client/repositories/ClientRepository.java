@@ -1,36 +1,121 @@
 package com.iftm.client.repositories;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import com.iftm.client.dto.ClientDTO;
 import com.iftm.client.entities.Client;
 
 @Repository
-public interface ClientRepository extends JpaRepository<Client, Long> {
+public interface ClientRepository extends JpaRepository<Client, Long>, JpaSpecificationExecutor<Client>,
+		ClientRepositoryCustom {
+	
+	String DTO_SELECT = "SELECT new com.iftm.client.dto.ClientDTO(obj.id, obj.name, obj.cpf, obj.income, "
+			+ "obj.birthDate, obj.children, obj.version) FROM Client obj";
+	
+	String UPDATE_SET = "UPDATE Client obj SET obj.name = :name, obj.cpf = :cpf, obj.income = :income, "
+			+ "obj.birthDate = :birthDate, obj.children = :children, obj.version = obj.version + 1";
+	
+	//Leituras projetadas direto em ClientDTO (sem entidade gerenciada nem snapshot de dirty checking)
+	
+	@Query(value = DTO_SELECT + " WHERE obj.id = :id")
+	Optional<ClientDTO> findDTOById(Long id);
+	
+	@Query(value = DTO_SELECT + " WHERE obj.cpf = :cpf")
+	Optional<ClientDTO> findDTOByCpf(String cpf);
+	
+	boolean existsByCpf(String cpf);
+	
+	@Query(value = DTO_SELECT)
+	List<ClientDTO> findAllDTO();
+	
+	@Query(value = DTO_SELECT, countQuery = "SELECT COUNT(obj) FROM Client obj")
+	Page<ClientDTO> findAllDTO(Pageable pageable);
+	
+	/*
+	 * Varredura de faixa em idx_client_income, sem DISTINCT (a consulta é de
+	 * uma tabela só) e com COUNT simples. Com orderBy=income as linhas já saem
+	 * do índice na ordem da página.
+	 */
+	@Query(value = DTO_SELECT + " WHERE obj.income >= :income",
+			countQuery = "SELECT COUNT(obj) FROM Client obj WHERE obj.income >= :income")
+	Page<ClientDTO> findDTOByIncome(Double income, Pageable pageable);
+	
+	/* "Contém" sem diferenciar maiúsculas nem acentos, como o ClientNameIndex. */
+	default Page<ClientDTO> findDTOByName(String name, Pageable pageable) {
+		return findDTOByFoldedName(NameFolding.foldForLike(name), pageable);
+	}
+	
+	@Query(value = DTO_SELECT + " WHERE " + NameFolding.FOLDED_NAME
+			+ " LIKE CONCAT('%', :name, '%') ESCAPE '\\'",
+			countQuery = "SELECT COUNT(obj) FROM Client obj WHERE " + NameFolding.FOLDED_NAME
+					+ " LIKE CONCAT('%', :name, '%') ESCAPE '\\'")
+	Page<ClientDTO> findDTOByFoldedName(String name, Pageable pageable);
+	
+	@Query(value = DTO_SELECT + " WHERE obj.id IN :ids",
+			countQuery = "SELECT COUNT(obj) FROM Client obj WHERE obj.id IN :ids")
+	Page<ClientDTO> findDTOByIdIn(Collection<Long> ids, Pageable pageable);
+	
+	default Page<ClientDTO> findDTOByYearOfBirthDate(Integer birthDateYear, Pageable pageable) {
+		return findDTOByBirthDateRange(BirthYears.startOf(birthDateYear), BirthYears.endOf(birthDateYear), pageable);
+	}
+	
+	@Query(value = DTO_SELECT + " WHERE obj.birthDate >= :start AND obj.birthDate < :end",
+			countQuery = "SELECT COUNT(obj) FROM Client obj WHERE obj.birthDate >= :start AND obj.birthDate < :end")
+	Page<ClientDTO> findDTOByBirthDateRange(Instant start, Instant end, Pageable pageable);
+	
+	@Query(value = DTO_SELECT + " WHERE obj.birthDate > :birthDate",
+			countQuery = "SELECT COUNT(obj) FROM Client obj WHERE obj.birthDate > :birthDate")
+	Page<ClientDTO> findDTOByBirthDateAfter(Instant birthDate, Pageable pageable);
 	
-	@Query(value = "SELECT DISTINCT obj FROM Client obj WHERE "
-			+ "obj.income >= :income")
-	Page<Client> findByIncome(Double income, Pageable pageable);
+	@Query(value = DTO_SELECT + " WHERE obj.birthDate >= :start",
+			countQuery = "SELECT COUNT(obj) FROM Client obj WHERE obj.birthDate >= :start")
+	Page<ClientDTO> findDTOByBirthDateFrom(Instant start, Pageable pageable);
 	
+	@Query(value = DTO_SELECT + " WHERE obj.birthDate < :end",
+			countQuery = "SELECT COUNT(obj) FROM Client obj WHERE obj.birthDate < :end")
+	Page<ClientDTO> findDTOByBirthDateBefore(Instant end, Pageable pageable);
 	
-	//Busca Clientes por nome-
+	@QueryHints(value = @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"))
+	@Query(value = DTO_SELECT + " ORDER BY obj.id")
+	Stream<ClientDTO> streamAllDTO();
 	
-	Page<Client> findByNameContainingIgnoreCase(String name, Pageable pageable);
+	//Escritas em um único comando (sem carregar a entidade antes)
 	
+	@Modifying
+	@Query(value = UPDATE_SET + " WHERE obj.id = :id")
+	int updateById(Long id, String name, String cpf, Double income, Instant birthDate, Integer children);
 	
-	//Busca Clientes por ano de nascimento
+	@Modifying
+	@Query(value = UPDATE_SET + " WHERE obj.id = :id AND obj.version = :version")
+	int updateByIdAndVersion(Long id, long version, String name, String cpf, Double income, Instant birthDate,
+			Integer children);
 	
-	@Query(value = "SELECT * FROM tb_client WHERE year(BIRTH_DATE)= ?1", nativeQuery=true)
-	Page<Client> findByYearOfBirthDate(Integer birthDateYear, Pageable pageable);
+	@Modifying
+	@Query(value = "DELETE FROM Client obj WHERE obj.id = :id")
+	int deleteClientById(Long id);
 	
-	//Busca Clientes que nasceram após determinado ano
+	//Operações em lote
 	
-	Page<Client> findByBirthDateAfter(Instant birthDate, Pageable pageable);
+	@Query(value = "SELECT obj.id FROM Client obj WHERE obj.id IN :ids")
+	List<Long> findExistingIds(Collection<Long> ids);
 	
+	@Modifying
+	@Query(value = "DELETE FROM Client obj WHERE obj.id IN :ids")
+	int deleteByIdIn(Collection<Long> ids);
 
 }
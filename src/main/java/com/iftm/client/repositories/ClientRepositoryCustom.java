@@ -0,0 +1,31 @@
+package com.iftm.client.repositories;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.dto.IncomeBucketDTO;
+import com.iftm.client.entities.Client;
+
+public interface ClientRepositoryCustom {
+
+	Slice<ClientDTO> findSlice(Specification<Client> spec, String orderBy, Direction direction, KeysetCursor cursor,
+			int size);
+
+	Slice<ClientDTO> findSlice(Specification<Client> spec, Pageable pageable);
+
+	Page<ClientDTO> findPage(Specification<Client> spec, Pageable pageable);
+
+	Page<Map<String, Object>> findFieldsPage(Specification<Client> spec, List<String> fields, Pageable pageable);
+
+	List<IncomeBucketDTO> findIncomeHistogram(Specification<Client> spec, double bucketSize, int maxResults);
+
+	int updateFields(Long id, Long expectedVersion, Map<String, Object> values);
+
+}
@@ -0,0 +1,252 @@
+package com.iftm.client.repositories;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.dto.IncomeBucketDTO;
+import com.iftm.client.entities.Client;
+
+public class ClientRepositoryImpl implements ClientRepositoryCustom {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public Slice<ClientDTO> findSlice(Specification<Client> spec, String orderBy, Direction direction,
+			KeysetCursor cursor, int size) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<ClientDTO> query = cb.createQuery(ClientDTO.class);
+		Root<Client> root = query.from(Client.class);
+		query.select(cb.construct(ClientDTO.class, root.get("id"), root.get("name"), root.get("cpf"),
+				root.get("income"), root.get("birthDate"), root.get("children"), root.get("version")));
+
+		Predicate filter = spec.toPredicate(root, query, cb);
+		if (cursor != null) {
+			Predicate seek = seek(cb, root, orderBy, direction, cursor);
+			filter = filter == null ? seek : cb.and(filter, seek);
+		}
+		if (filter != null) {
+			query.where(filter);
+		}
+		if (orderBy.equals("id")) {
+			query.orderBy(direction.isAscending() ? cb.asc(root.get("id")) : cb.desc(root.get("id")));
+		} else if (direction.isAscending()) {
+			query.orderBy(cb.asc(root.get(orderBy)), cb.asc(root.get("id")));
+		} else {
+			query.orderBy(cb.desc(root.get(orderBy)), cb.desc(root.get("id")));
+		}
+
+		// Busca um registro a mais para saber se existe próxima página sem COUNT
+		List<ClientDTO> result = entityManager.createQuery(query).setMaxResults(size + 1).getResultList();
+		boolean hasNext = result.size() > size;
+		List<ClientDTO> content = hasNext ? result.subList(0, size) : result;
+		return new SliceImpl<>(content, PageRequest.of(0, size, Sort.by(direction, orderBy)), hasNext);
+	}
+
+	/*
+	 * Mesma página (offset e ordenação) que os métodos Page<ClientDTO>, mas
+	 * sem o COUNT: busca um registro a mais só para saber se há próxima.
+	 */
+	@Override
+	public Slice<ClientDTO> findSlice(Specification<Client> spec, Pageable pageable) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<ClientDTO> query = cb.createQuery(ClientDTO.class);
+		Root<Client> root = query.from(Client.class);
+		query.select(cb.construct(ClientDTO.class, root.get("id"), root.get("name"), root.get("cpf"),
+				root.get("income"), root.get("birthDate"), root.get("children"), root.get("version")));
+
+		Predicate filter = spec.toPredicate(root, query, cb);
+		if (filter != null) {
+			query.where(filter);
+		}
+		query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+		List<ClientDTO> result = entityManager.createQuery(query).setFirstResult((int) pageable.getOffset())
+				.setMaxResults(pageable.getPageSize() + 1).getResultList();
+		boolean hasNext = result.size() > pageable.getPageSize();
+		List<ClientDTO> content = hasNext ? result.subList(0, pageable.getPageSize()) : result;
+		return new SliceImpl<>(content, pageable, hasNext);
+	}
+
+	/*
+	 * Page<ClientDTO> para um Specification qualquer. O COUNT só roda quando a
+	 * página não basta para saber o total (PageableExecutionUtils).
+	 */
+	@Override
+	public Page<ClientDTO> findPage(Specification<Client> spec, Pageable pageable) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<ClientDTO> query = cb.createQuery(ClientDTO.class);
+		Root<Client> root = query.from(Client.class);
+		query.select(cb.construct(ClientDTO.class, root.get("id"), root.get("name"), root.get("cpf"),
+				root.get("income"), root.get("birthDate"), root.get("children"), root.get("version")));
+
+		Predicate filter = spec.toPredicate(root, query, cb);
+		if (filter != null) {
+			query.where(filter);
+		}
+		query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+		List<ClientDTO> content = entityManager.createQuery(query).setFirstResult((int) pageable.getOffset())
+				.setMaxResults(pageable.getPageSize()).getResultList();
+		return PageableExecutionUtils.getPage(content, pageable, () -> countMatching(spec));
+	}
+
+	/*
+	 * Como findPage, mas o SELECT traz só as colunas em fields (nomes dos
+	 * atributos de Client) e cada linha vira um mapa atributo -> valor, na
+	 * mesma ordem, pronto para ser serializado sem os demais campos.
+	 */
+	@Override
+	public Page<Map<String, Object>> findFieldsPage(Specification<Client> spec, List<String> fields,
+			Pageable pageable) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<Client> root = query.from(Client.class);
+		List<Selection<?>> selections = new ArrayList<>(fields.size());
+		for (String field : fields) {
+			selections.add(root.get(field).alias(field));
+		}
+		query.multiselect(selections);
+
+		Predicate filter = spec.toPredicate(root, query, cb);
+		if (filter != null) {
+			query.where(filter);
+		}
+		query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+		List<Tuple> rows = entityManager.createQuery(query).setFirstResult((int) pageable.getOffset())
+				.setMaxResults(pageable.getPageSize()).getResultList();
+		List<Map<String, Object>> content = new ArrayList<>(rows.size());
+		for (Tuple row : rows) {
+			Map<String, Object> values = new LinkedHashMap<>();
+			for (String field : fields) {
+				values.put(field, row.get(field));
+			}
+			content.add(values);
+		}
+		return PageableExecutionUtils.getPage(content, pageable, () -> countMatching(spec));
+	}
+
+	/*
+	 * Um GROUP BY FLOOR(income / bucketSize) com COUNT/SUM/AVG/MIN/MAX por faixa,
+	 * numa única consulta; os totais saem da soma das faixas. Traz no máximo
+	 * maxResults faixas, para um bucketSize minúsculo não carregar uma por cliente.
+	 */
+	@Override
+	public List<IncomeBucketDTO> findIncomeHistogram(Specification<Client> spec, double bucketSize, int maxResults) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<Client> root = query.from(Client.class);
+		Path<Double> income = root.get("income");
+		Expression<Double> bucket = cb.function("floor", Double.class, cb.quot(income, bucketSize));
+		query.multiselect(bucket, cb.count(root), cb.sum(income), cb.avg(income), cb.min(income), cb.max(income));
+		Predicate filter = spec.toPredicate(root, query, cb);
+		if (filter != null) {
+			query.where(filter);
+		}
+		query.groupBy(bucket);
+		query.orderBy(cb.asc(bucket));
+
+		List<IncomeBucketDTO> buckets = new ArrayList<>();
+		for (Tuple row : entityManager.createQuery(query).setMaxResults(maxResults).getResultList()) {
+			double lowerBound = ((Number) row.get(0)).doubleValue() * bucketSize;
+			buckets.add(new IncomeBucketDTO(lowerBound, lowerBound + bucketSize, ((Number) row.get(1)).longValue(),
+					((Number) row.get(2)).doubleValue(), ((Number) row.get(3)).doubleValue(),
+					((Number) row.get(4)).doubleValue(), ((Number) row.get(5)).doubleValue()));
+		}
+		return buckets;
+	}
+
+	/*
+	 * UPDATE só das colunas recebidas (nome do atributo -> valor), com a versão
+	 * incrementada no mesmo comando e, se expectedVersion vier, comparada no
+	 * WHERE. Devolve o número de linhas alteradas.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public int updateFields(Long id, Long expectedVersion, Map<String, Object> values) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaUpdate<Client> update = cb.createCriteriaUpdate(Client.class);
+		Root<Client> root = update.from(Client.class);
+		for (Map.Entry<String, Object> value : values.entrySet()) {
+			Path<Object> path = root.get(value.getKey());
+			Expression<Object> expression = value.getValue() == null
+					? (Expression<Object>) cb.nullLiteral(path.getJavaType())
+					: cb.literal(value.getValue());
+			update.<Object>set(path, expression);
+		}
+		Path<Long> version = root.get("version");
+		update.<Long>set(version, cb.sum(version, 1L));
+		Predicate where = cb.equal(root.get("id"), id);
+		if (expectedVersion != null) {
+			where = cb.and(where, cb.equal(version, expectedVersion));
+		}
+		update.where(where);
+		return entityManager.createQuery(update).executeUpdate();
+	}
+
+	/* Não pode se chamar count: o Spring Data desviaria JpaSpecificationExecutor.count para cá. */
+	private long countMatching(Specification<Client> spec) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Long> query = cb.createQuery(Long.class);
+		Root<Client> root = query.from(Client.class);
+		query.select(cb.count(root));
+		Predicate filter = spec.toPredicate(root, query, cb);
+		if (filter != null) {
+			query.where(filter);
+		}
+		return entityManager.createQuery(query).getSingleResult();
+	}
+
+	/*
+	 * (col, id) > (valor, id) na ordem pedida. Nulos ficam no início em ordem
+	 * ascendente, como no H2.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Predicate seek(CriteriaBuilder cb, Root<Client> root, String orderBy, Direction direction,
+			KeysetCursor cursor) {
+		Path<Long> id = root.get("id");
+		Predicate idAfter = direction.isAscending() ? cb.greaterThan(id, cursor.getId())
+				: cb.lessThan(id, cursor.getId());
+		if (orderBy.equals("id")) {
+			return idAfter;
+		}
+		Path<Comparable> column = root.get(orderBy);
+		Comparable value = (Comparable) cursor.getValue();
+		if (value == null) {
+			Predicate sameNull = cb.and(cb.isNull(column), idAfter);
+			return direction.isAscending() ? cb.or(cb.isNotNull(column), sameNull) : sameNull;
+		}
+		Predicate after = direction.isAscending() ? cb.greaterThan(column, value) : cb.lessThan(column, value);
+		Predicate tie = cb.and(cb.equal(column, value), idAfter);
+		Predicate seek = cb.or(after, tie);
+		return direction.isAscending() ? seek : cb.or(seek, cb.isNull(column));
+	}
+
+}
@@ -0,0 +1,78 @@
+package com.iftm.client.repositories;
+
+import java.time.Instant;
+import java.util.Collection;
+
+import javax.persistence.criteria.Predicate;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.iftm.client.entities.Client;
+
+public final class ClientSpecifications {
+
+	private ClientSpecifications() {
+	}
+
+	public static Specification<Client> all() {
+		return (root, query, cb) -> null;
+	}
+
+	/* Sem diferenciar maiúsculas nem acentos (ver NameFolding). */
+	public static Specification<Client> nameContainsIgnoreCase(String name) {
+		return (root, query, cb) -> cb.like(cb.function("TRANSLATE", String.class, cb.lower(root.get("name")),
+				cb.literal(NameFolding.ACCENTED), cb.literal(NameFolding.UNACCENTED)),
+				"%" + NameFolding.foldForLike(name) + "%", NameFolding.LIKE_ESCAPE);
+	}
+
+	public static Specification<Client> idIn(Collection<Long> ids) {
+		return (root, query, cb) -> ids.isEmpty() ? cb.disjunction() : root.get("id").in(ids);
+	}
+
+	public static Specification<Client> incomeGreaterThanOrEqual(Double income) {
+		return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("income"), income);
+	}
+
+	/* Faixa semiaberta [min, max); limites nulos ficam abertos. Ignora renda nula. */
+	public static Specification<Client> incomeInRange(Double min, Double max) {
+		return (root, query, cb) -> {
+			Predicate predicate = cb.isNotNull(root.get("income"));
+			if (min != null) {
+				predicate = cb.and(predicate, cb.greaterThanOrEqualTo(root.get("income"), min));
+			}
+			if (max != null) {
+				predicate = cb.and(predicate, cb.lessThan(root.get("income"), max));
+			}
+			return predicate;
+		};
+	}
+
+	public static Specification<Client> childrenEqual(Integer children) {
+		return (root, query, cb) -> cb.equal(root.get("children"), children);
+	}
+
+	public static Specification<Client> birthYear(Integer year) {
+		Instant start = BirthYears.startOf(year);
+		Instant end = BirthYears.endOf(year);
+		return (root, query, cb) -> cb.and(cb.greaterThanOrEqualTo(root.get("birthDate"), start),
+				cb.lessThan(root.get("birthDate"), end));
+	}
+
+	public static Specification<Client> birthDateInRange(BirthDateRange range) {
+		return (root, query, cb) -> {
+			Predicate predicate = cb.conjunction();
+			if (range.getStart() != null) {
+				predicate = cb.and(predicate, cb.greaterThanOrEqualTo(root.get("birthDate"), range.getStart()));
+			}
+			if (range.getEnd() != null) {
+				predicate = cb.and(predicate, cb.lessThan(root.get("birthDate"), range.getEnd()));
+			}
+			return predicate;
+		};
+	}
+
+	public static Specification<Client> birthDateAfter(Instant birthDate) {
+		return (root, query, cb) -> cb.greaterThan(root.get("birthDate"), birthDate);
+	}
+
+}
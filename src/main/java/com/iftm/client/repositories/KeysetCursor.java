@@ -0,0 +1,119 @@
+package com.iftm.client.repositories;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.springframework.data.domain.Sort.Direction;
+
+import com.iftm.client.dto.ClientDTO;
+
+/*
+ * Posição de continuação da paginação por chave (keyset): valor da coluna de
+ * ordenação + id do último registro entregue. O token é opaco para o cliente.
+ */
+public final class KeysetCursor {
+
+	private static final String SEPARATOR = "|";
+
+	private final String orderBy;
+	private final Direction direction;
+	private final Object value;
+	private final Long id;
+
+	public KeysetCursor(String orderBy, Direction direction, Object value, Long id) {
+		this.orderBy = orderBy;
+		this.direction = direction;
+		this.value = value;
+		this.id = id;
+	}
+
+	public static KeysetCursor after(ClientDTO entity, String orderBy, Direction direction) {
+		return new KeysetCursor(orderBy, direction, valueOf(entity, orderBy), entity.getId());
+	}
+
+	public static boolean supports(String orderBy) {
+		switch (orderBy) {
+		case "id":
+		case "name":
+		case "cpf":
+		case "income":
+		case "birthDate":
+		case "children":
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	public String getOrderBy() {
+		return orderBy;
+	}
+
+	public Direction getDirection() {
+		return direction;
+	}
+
+	public Object getValue() {
+		return value;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String encode() {
+		String raw = orderBy + SEPARATOR + direction.name() + SEPARATOR + id + SEPARATOR
+				+ (value == null ? "" : "v" + value);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static KeysetCursor decode(String token) {
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			String[] parts = raw.split("\\|", 4);
+			if (parts.length != 4 || !supports(parts[0])) {
+				throw new IllegalArgumentException("Malformed cursor");
+			}
+			Object value = parts[3].isEmpty() ? null : parse(parts[0], parts[3].substring(1));
+			return new KeysetCursor(parts[0], Direction.valueOf(parts[1]), value, Long.valueOf(parts[2]));
+		} catch (RuntimeException e) {
+			throw new IllegalArgumentException("Malformed cursor", e);
+		}
+	}
+
+	private static Object valueOf(ClientDTO entity, String orderBy) {
+		switch (orderBy) {
+		case "id":
+			return entity.getId();
+		case "name":
+			return entity.getName();
+		case "cpf":
+			return entity.getCpf();
+		case "income":
+			return entity.getIncome();
+		case "birthDate":
+			return entity.getBirthDate();
+		case "children":
+			return entity.getChildren();
+		default:
+			throw new IllegalArgumentException("Unsupported keyset column " + orderBy);
+		}
+	}
+
+	private static Object parse(String orderBy, String raw) {
+		switch (orderBy) {
+		case "id":
+			return Long.valueOf(raw);
+		case "income":
+			return Double.valueOf(raw);
+		case "birthDate":
+			return Instant.parse(raw);
+		case "children":
+			return Integer.valueOf(raw);
+		default:
+			return raw;
+		}
+	}
+
+}
@@ -0,0 +1,42 @@
+package com.iftm.client.repositories;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/*
+ * Forma de comparação dos nomes: minúsculas e sem acentos. Do lado Java o
+ * texto é decomposto (NFD) e perde as marcas; do lado do banco o
+ * TRANSLATE troca cada letra acentuada de ACCENTED pela de mesma posição em
+ * UNACCENTED. As duas formas coincidem para os acentos do português (e
+ * vizinhos); letras fora da lista continuam acentuadas só no banco.
+ */
+public final class NameFolding {
+
+	public static final String ACCENTED = "áàâãäåéèêëíìîïóòôõöúùûüçñý";
+	public static final String UNACCENTED = "aaaaaaeeeeiiiiooooouuuucny";
+
+	/* Expressão JPQL do nome dobrado, para as consultas de ClientRepository. */
+	public static final String FOLDED_NAME = "FUNCTION('TRANSLATE', LOWER(obj.name), '" + ACCENTED + "', '"
+			+ UNACCENTED + "')";
+
+	/* Escape dos curingas no LIKE; as consultas declaram ESCAPE '\'. */
+	public static final char LIKE_ESCAPE = '\\';
+
+	private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+	private static final Pattern LIKE_WILDCARDS = Pattern.compile("[\\\\%_]");
+
+	private NameFolding() {
+	}
+
+	public static String fold(String text) {
+		String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+		return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+	}
+
+	/* fold com \, % e _ escapados: o texto do usuário vale como literal dentro do LIKE. */
+	public static String foldForLike(String text) {
+		return LIKE_WILDCARDS.matcher(fold(text)).replaceAll("\\\\$0");
+	}
+
+}
@@ -0,0 +1,79 @@
+package com.iftm.client.resources;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.services.exceptions.InvalidParameterException;
+
+public enum ClientExportFormat {
+
+	NDJSON("application/x-ndjson") {
+		@Override
+		public void writeRow(Writer writer, ObjectWriter json, ClientDTO dto) throws IOException {
+			writer.write(json.writeValueAsString(dto));
+			writer.write('\n');
+		}
+	},
+
+	CSV("text/csv") {
+		@Override
+		public void writeHeader(Writer writer) throws IOException {
+			writer.write("id,name,cpf,income,birthDate,children\n");
+		}
+
+		@Override
+		public void writeRow(Writer writer, ObjectWriter json, ClientDTO dto) throws IOException {
+			writer.write(csv(dto.getId()));
+			writer.write(',');
+			writer.write(csv(dto.getName()));
+			writer.write(',');
+			writer.write(csv(dto.getCpf()));
+			writer.write(',');
+			writer.write(csv(dto.getIncome()));
+			writer.write(',');
+			writer.write(csv(dto.getBirthDate()));
+			writer.write(',');
+			writer.write(csv(dto.getChildren()));
+			writer.write('\n');
+		}
+	};
+
+	private final String mediaType;
+
+	private ClientExportFormat(String mediaType) {
+		this.mediaType = mediaType;
+	}
+
+	public String getMediaType() {
+		return mediaType;
+	}
+
+	/* Formato pelo nome, sem diferenciar maiúsculas; desconhecido é 400. */
+	public static ClientExportFormat fromName(String format) {
+		for (ClientExportFormat value : values()) {
+			if (value.name().equalsIgnoreCase(format)) {
+				return value;
+			}
+		}
+		throw new InvalidParameterException("Unknown export format " + format);
+	}
+
+	public void writeHeader(Writer writer) throws IOException {
+	}
+
+	public abstract void writeRow(Writer writer, ObjectWriter json, ClientDTO dto) throws IOException;
+
+	private static String csv(Object value) {
+		if (value == null) {
+			return "";
+		}
+		String text = value.toString();
+		if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0) {
+			return text;
+		}
+		return '"' + text.replace("\"", "\"\"") + '"';
+	}
+
+}
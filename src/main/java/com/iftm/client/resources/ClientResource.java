@@ -1,54 +1,162 @@
 package com.iftm.client.resources;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.net.URI;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
-import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort.Direction;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.ResponseEntity.BodyBuilder;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.iftm.client.dto.BatchItemResultDTO;
 import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.dto.ClientFilterDTO;
+import com.iftm.client.dto.CountDTO;
+import com.iftm.client.dto.IncomeStatsDTO;
+import com.iftm.client.dto.SliceDTO;
+import com.iftm.client.dto.WriteQueueStatusDTO;
+import com.iftm.client.dto.WriteStatusDTO;
+import com.iftm.client.repositories.BirthYears;
+import com.iftm.client.services.ClientBatchService;
 import com.iftm.client.services.ClientService;
+import com.iftm.client.services.ClientWriteBehindService;
+import com.iftm.client.services.exceptions.InvalidParameterException;
+import com.iftm.client.services.exceptions.PreconditionFailedException;
+import com.iftm.client.services.exceptions.ResourceNotFoundException;
 
 @RestController
+@ConditionalOnWebApplication(type = Type.SERVLET)
 @RequestMapping(value = "/clients")
 public class ClientResource {
 
 	@Autowired
 	private ClientService service;
 
+	@Autowired
+	private ClientBatchService batchService;
+
+	/* Presente só com client.write-behind.enabled=true. */
+	@Autowired(required = false)
+	private ClientWriteBehindService writeBehind;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	/* Limite do streaming de /export; 0 é sem limite. Os demais usam o padrão do contêiner. */
+	@Value("${client.export.timeout:0}")
+	private Duration exportTimeout;
+
+	/* fields=id,name: resposta parcial, só com esses campos (o id vem sempre). */
 	@GetMapping
-	public ResponseEntity<Page<ClientDTO>> findAll(@RequestParam(value = "page", defaultValue = "0") Integer page,
+	public ResponseEntity<Page<?>> findAll(@RequestParam(value = "page", defaultValue = "0") Integer page,
 			@RequestParam(value = "linesPerPage", defaultValue = "12") Integer linesPerPage,
 			@RequestParam(value = "direction", defaultValue = "ASC") String direction,
-			@RequestParam(value = "orderBy", defaultValue = "name") String orderBy) {
+			@RequestParam(value = "orderBy", defaultValue = "name") String orderBy,
+			@RequestParam(value = "fields", required = false) String fields) {
 		PageRequest pageRequest = PageRequest.of(page, linesPerPage, Direction.valueOf(direction), orderBy);
+		if (fields != null) {
+			return ResponseEntity.ok().body(service.findAllPaged(pageRequest, fields));
+		}
 		Page<ClientDTO> list = service.findAllPaged(pageRequest);
 		return ResponseEntity.ok().body(list);
 	}
 	
+	/* count=false: mesma página, sem total (e sem o COUNT no banco), só com hasNext. */
+	@GetMapping(params = { "count=false", "!cursor" })
+	public ResponseEntity<SliceDTO<ClientDTO>> findAllSlice(
+			@RequestParam(value = "page", defaultValue = "0") Integer page,
+			@RequestParam(value = "linesPerPage", defaultValue = "12") Integer linesPerPage,
+			@RequestParam(value = "direction", defaultValue = "ASC") String direction,
+			@RequestParam(value = "orderBy", defaultValue = "name") String orderBy,
+			@RequestParam(value = "fields", required = false) String fields) {
+		rejectFields(fields);
+		PageRequest pageRequest = PageRequest.of(page, linesPerPage, Direction.valueOf(direction), orderBy);
+		SliceDTO<ClientDTO> list = service.findAllSlice(pageRequest);
+		return ResponseEntity.ok().body(list);
+	}
+	
+	@GetMapping(params = "cursor")
+	public ResponseEntity<SliceDTO<ClientDTO>> findAllKeyset(@RequestParam(value = "cursor") String cursor,
+			@RequestParam(value = "linesPerPage", defaultValue = "12") Integer linesPerPage,
+			@RequestParam(value = "direction", defaultValue = "ASC") String direction,
+			@RequestParam(value = "orderBy", defaultValue = "name") String orderBy,
+			@RequestParam(value = "fields", required = false) String fields) {
+		rejectFields(fields);
+		PageRequest pageRequest = PageRequest.of(0, linesPerPage, Direction.valueOf(direction), orderBy);
+		SliceDTO<ClientDTO> list = service.findAllKeyset(cursor, pageRequest);
+		return ResponseEntity.ok().body(list);
+	}
+	
 	@GetMapping(value = "/findAll")
 	public ResponseEntity<List<ClientDTO>> findAll() {
 		List<ClientDTO> list = service.findAll();
 		return ResponseEntity.ok().body(list);
 	}
 
+	@GetMapping(value = "/export")
+	public ResponseEntity<StreamingResponseBody> export(
+			@RequestParam(value = "format", defaultValue = "ndjson") String format, HttpServletRequest request,
+			HttpServletResponse response) {
+		ClientExportFormat exportFormat = ClientExportFormat.fromName(format);
+		// troca o AsyncWebRequest desta requisição por um com o timeout do export
+		AsyncWebRequest asyncWebRequest = WebAsyncUtils.createAsyncWebRequest(request, response);
+		asyncWebRequest.setTimeout(exportTimeout.toMillis());
+		WebAsyncUtils.getAsyncManager(request).setAsyncWebRequest(asyncWebRequest);
+		ObjectWriter json = objectMapper.writerFor(ClientDTO.class);
+		StreamingResponseBody body = out -> {
+			Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+			exportFormat.writeHeader(writer);
+			service.exportAll(dto -> {
+				try {
+					exportFormat.writeRow(writer, json, dto);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+			writer.flush();
+		};
+		return ResponseEntity.ok().contentType(MediaType.parseMediaType(exportFormat.getMediaType())).body(body);
+	}
+
 	@GetMapping(value = "/find-by-name")
 	public ResponseEntity<Page<ClientDTO>> findByName(@RequestParam(value = "page", defaultValue = "0") Integer page,
 			@RequestParam(value = "linesPerPage", defaultValue = "12") Integer linesPerPage,
@@ -60,6 +168,30 @@ public class ClientResource {
 		return ResponseEntity.ok().body(list);
 	}
 
+	@GetMapping(value = "/find-by-name", params = { "count=false", "!cursor" })
+	public ResponseEntity<SliceDTO<ClientDTO>> findByNameSlice(
+			@RequestParam(value = "page", defaultValue = "0") Integer page,
+			@RequestParam(value = "linesPerPage", defaultValue = "12") Integer linesPerPage,
+			@RequestParam(value = "direction", defaultValue = "ASC") String direction,
+			@RequestParam(value = "orderBy", defaultValue = "name") String orderBy,
+			@RequestParam(value = "name", defaultValue = "") String name) {
+		PageRequest pageRequest = PageRequest.of(page, linesPerPage, Direction.valueOf(direction), orderBy);
+		SliceDTO<ClientDTO> list = service.findByNameSlice(name, pageRequest);
+		return ResponseEntity.ok().body(list);
+	}
+
+	@GetMapping(value = "/find-by-name", params = "cursor")
+	public ResponseEntity<SliceDTO<ClientDTO>> findByNameKeyset(@RequestParam(value = "cursor") String cursor,
+			@RequestParam(value = "linesPerPage", defaultValue = "12") Integer linesPerPage,
+			@RequestParam(value = "direction", defaultValue = "ASC") String direction,
+			@RequestParam(value = "orderBy", defaultValue = "name") String orderBy,
+			@RequestParam(value = "name", defaultValue = "") String name) {
+		PageRequest pageRequest = PageRequest.of(0, linesPerPage, Direction.valueOf(direction), orderBy);
+		SliceDTO<ClientDTO> list = service.findByNameKeyset(name, cursor, pageRequest);
+		return ResponseEntity.ok().body(list);
+	}
+
+	/* Com orderBy=income a página sai de idx_client_income sem ordenação extra. */
 	@GetMapping(value = "/find-by-income")
 	public ResponseEntity<Page<ClientDTO>> findByIncome(@RequestParam(value = "page", defaultValue = "0") Integer page,
 			@RequestParam(value = "linesPerPage", defaultValue = "12") Integer linesPerPage,
@@ -71,6 +203,29 @@ public class ClientResource {
 		return ResponseEntity.ok().body(list);
 	}
 
+	@GetMapping(value = "/find-by-income", params = { "count=false", "!cursor" })
+	public ResponseEntity<SliceDTO<ClientDTO>> findByIncomeSlice(
+			@RequestParam(value = "page", defaultValue = "0") Integer page,
+			@RequestParam(value = "linesPerPage", defaultValue = "12") Integer linesPerPage,
+			@RequestParam(value = "direction", defaultValue = "ASC") String direction,
+			@RequestParam(value = "orderBy", defaultValue = "name") String orderBy,
+			@RequestParam(value = "income", defaultValue = "") Double income) {
+		PageRequest pageRequest = PageRequest.of(page, linesPerPage, Direction.valueOf(direction), orderBy);
+		SliceDTO<ClientDTO> list = service.findByIncomeSlice(income, pageRequest);
+		return ResponseEntity.ok().body(list);
+	}
+
+	@GetMapping(value = "/find-by-income", params = "cursor")
+	public ResponseEntity<SliceDTO<ClientDTO>> findByIncomeKeyset(@RequestParam(value = "cursor") String cursor,
+			@RequestParam(value = "linesPerPage", defaultValue = "12") Integer linesPerPage,
+			@RequestParam(value = "direction", defaultValue = "ASC") String direction,
+			@RequestParam(value = "orderBy", defaultValue = "name") String orderBy,
+			@RequestParam(value = "income", defaultValue = "") Double income) {
+		PageRequest pageRequest = PageRequest.of(0, linesPerPage, Direction.valueOf(direction), orderBy);
+		SliceDTO<ClientDTO> list = service.findByIncomeKeyset(income, cursor, pageRequest);
+		return ResponseEntity.ok().body(list);
+	}
+
 	@GetMapping(value = "/find-by-birth-year")
 	public ResponseEntity<Page<ClientDTO>> findByYearOfBirthDate(
 			@RequestParam(value = "page", defaultValue = "0") Integer page,
@@ -89,44 +244,275 @@ public class ClientResource {
 
 	}
 	
+	@GetMapping(value = "/find-by-birth-year", params = { "count=false", "!cursor" })
+	public ResponseEntity<SliceDTO<ClientDTO>> findByYearOfBirthDateSlice(
+			@RequestParam(value = "page", defaultValue = "0") Integer page,
+			@RequestParam(value = "linesPerPage", defaultValue = "12") Integer linesPerPage,
+			@RequestParam(value = "direction", defaultValue = "ASC") String direction,
+			@RequestParam(value = "orderBy", defaultValue = "name") String orderBy,
+			@RequestParam(value = "year", defaultValue = "") Integer birthDateYear) {
+		PageRequest pageRequest = PageRequest.of(page, linesPerPage, Direction.valueOf(direction), orderBy);
+		if (birthDateYear == null) {
+			SliceDTO<ClientDTO> list = service.findAllSlice(pageRequest);
+			return ResponseEntity.ok().body(list);
+		} else {
+			SliceDTO<ClientDTO> list = service.findByYearOfBirthDateSlice(birthDateYear, pageRequest);
+			return ResponseEntity.ok().body(list);
+		}
+	}
+	
+	@GetMapping(value = "/find-by-birth-year", params = "cursor")
+	public ResponseEntity<SliceDTO<ClientDTO>> findByYearOfBirthDateKeyset(
+			@RequestParam(value = "cursor") String cursor,
+			@RequestParam(value = "linesPerPage", defaultValue = "12") Integer linesPerPage,
+			@RequestParam(value = "direction", defaultValue = "ASC") String direction,
+			@RequestParam(value = "orderBy", defaultValue = "name") String orderBy,
+			@RequestParam(value = "year", defaultValue = "") Integer birthDateYear) {
+		PageRequest pageRequest = PageRequest.of(0, linesPerPage, Direction.valueOf(direction), orderBy);
+		if (birthDateYear == null) {
+			SliceDTO<ClientDTO> list = service.findAllKeyset(cursor, pageRequest);
+			return ResponseEntity.ok().body(list);
+		} else {
+			SliceDTO<ClientDTO> list = service.findByYearOfBirthDateKeyset(birthDateYear, cursor, pageRequest);
+			return ResponseEntity.ok().body(list);
+		}
+	}
+	
 	@GetMapping(value = "/find-by-birth-date-after")
 	public ResponseEntity<Page<ClientDTO>> findByBirthDateYearAfter(
 			@RequestParam(value = "page", defaultValue = "0") Integer page,
 			@RequestParam(value = "linesPerPage", defaultValue = "12") Integer linesPerPage,
 			@RequestParam(value = "direction", defaultValue = "ASC") String direction,
 			@RequestParam(value = "orderBy", defaultValue = "name") String orderBy,
-			@RequestParam(value = "year", defaultValue = "") String birthDateYear) throws ParseException {
+			@RequestParam(value = "year", required = false) Integer birthDateYear) {
 		PageRequest pageRequest = PageRequest.of(page, linesPerPage, Direction.valueOf(direction), orderBy);
 		if (birthDateYear == null) {
 			Page<ClientDTO> list = service.findAllPaged(pageRequest);
 			return ResponseEntity.ok().body(list);
 		} else {
-			String bD1 = "01/01/" + birthDateYear;
-			Date date = new SimpleDateFormat("dd/MM/yyyy").parse(bD1);
-			Instant bD2 = date.toInstant();
+			Instant bD2 = BirthYears.startOf(birthDateYear);
 			Page<ClientDTO> list = service.findByBirthDateAfter(bD2, pageRequest);
 			return ResponseEntity.ok().body(list);
 		}
 
 	}
+	
+	@GetMapping(value = "/find-by-birth-date-after", params = { "count=false", "!cursor" })
+	public ResponseEntity<SliceDTO<ClientDTO>> findByBirthDateYearAfterSlice(
+			@RequestParam(value = "page", defaultValue = "0") Integer page,
+			@RequestParam(value = "linesPerPage", defaultValue = "12") Integer linesPerPage,
+			@RequestParam(value = "direction", defaultValue = "ASC") String direction,
+			@RequestParam(value = "orderBy", defaultValue = "name") String orderBy,
+			@RequestParam(value = "year", required = false) Integer birthDateYear) {
+		PageRequest pageRequest = PageRequest.of(page, linesPerPage, Direction.valueOf(direction), orderBy);
+		if (birthDateYear == null) {
+			SliceDTO<ClientDTO> list = service.findAllSlice(pageRequest);
+			return ResponseEntity.ok().body(list);
+		} else {
+			Instant bD2 = BirthYears.startOf(birthDateYear);
+			SliceDTO<ClientDTO> list = service.findByBirthDateAfterSlice(bD2, pageRequest);
+			return ResponseEntity.ok().body(list);
+		}
+	}
+	
+	@GetMapping(value = "/find-by-birth-date-after", params = "cursor")
+	public ResponseEntity<SliceDTO<ClientDTO>> findByBirthDateYearAfterKeyset(
+			@RequestParam(value = "cursor") String cursor,
+			@RequestParam(value = "linesPerPage", defaultValue = "12") Integer linesPerPage,
+			@RequestParam(value = "direction", defaultValue = "ASC") String direction,
+			@RequestParam(value = "orderBy", defaultValue = "name") String orderBy,
+			@RequestParam(value = "year", required = false) Integer birthDateYear) {
+		PageRequest pageRequest = PageRequest.of(0, linesPerPage, Direction.valueOf(direction), orderBy);
+		if (birthDateYear == null) {
+			SliceDTO<ClientDTO> list = service.findAllKeyset(cursor, pageRequest);
+			return ResponseEntity.ok().body(list);
+		} else {
+			Instant bD2 = BirthYears.startOf(birthDateYear);
+			SliceDTO<ClientDTO> list = service.findByBirthDateAfterKeyset(bD2, cursor, pageRequest);
+			return ResponseEntity.ok().body(list);
+		}
+	}
+
+	@GetMapping(value = "/find-by-birth-date")
+	public ResponseEntity<Page<ClientDTO>> findByBirthDate(
+			@RequestParam(value = "page", defaultValue = "0") Integer page,
+			@RequestParam(value = "linesPerPage", defaultValue = "12") Integer linesPerPage,
+			@RequestParam(value = "direction", defaultValue = "ASC") String direction,
+			@RequestParam(value = "orderBy", defaultValue = "name") String orderBy,
+			@RequestParam(value = "after", required = false) String after,
+			@RequestParam(value = "before", required = false) String before,
+			@RequestParam(value = "between", required = false) String between) {
+		PageRequest pageRequest = PageRequest.of(page, linesPerPage, Direction.valueOf(direction), orderBy);
+		Page<ClientDTO> list = service.findByBirthDate(after, before, between, pageRequest);
+		return ResponseEntity.ok().body(list);
+	}
+	
+	@GetMapping(value = "/find-by-birth-date", params = { "count=false", "!cursor" })
+	public ResponseEntity<SliceDTO<ClientDTO>> findByBirthDateSlice(
+			@RequestParam(value = "page", defaultValue = "0") Integer page,
+			@RequestParam(value = "linesPerPage", defaultValue = "12") Integer linesPerPage,
+			@RequestParam(value = "direction", defaultValue = "ASC") String direction,
+			@RequestParam(value = "orderBy", defaultValue = "name") String orderBy,
+			@RequestParam(value = "after", required = false) String after,
+			@RequestParam(value = "before", required = false) String before,
+			@RequestParam(value = "between", required = false) String between) {
+		PageRequest pageRequest = PageRequest.of(page, linesPerPage, Direction.valueOf(direction), orderBy);
+		SliceDTO<ClientDTO> list = service.findByBirthDateSlice(after, before, between, pageRequest);
+		return ResponseEntity.ok().body(list);
+	}
+	
+	@GetMapping(value = "/find-by-birth-date", params = "cursor")
+	public ResponseEntity<SliceDTO<ClientDTO>> findByBirthDateKeyset(
+			@RequestParam(value = "cursor") String cursor,
+			@RequestParam(value = "linesPerPage", defaultValue = "12") Integer linesPerPage,
+			@RequestParam(value = "direction", defaultValue = "ASC") String direction,
+			@RequestParam(value = "orderBy", defaultValue = "name") String orderBy,
+			@RequestParam(value = "after", required = false) String after,
+			@RequestParam(value = "before", required = false) String before,
+			@RequestParam(value = "between", required = false) String between) {
+		PageRequest pageRequest = PageRequest.of(0, linesPerPage, Direction.valueOf(direction), orderBy);
+		SliceDTO<ClientDTO> list = service.findByBirthDateKeyset(after, before, between, cursor, pageRequest);
+		return ResponseEntity.ok().body(list);
+	}
+
+	@GetMapping(value = "/search")
+	public ResponseEntity<Page<?>> search(ClientFilterDTO filter,
+			@RequestParam(value = "page", defaultValue = "0") Integer page,
+			@RequestParam(value = "linesPerPage", defaultValue = "12") Integer linesPerPage,
+			@RequestParam(value = "direction", defaultValue = "ASC") String direction,
+			@RequestParam(value = "orderBy", defaultValue = "name") String orderBy,
+			@RequestParam(value = "fields", required = false) String fields) {
+		PageRequest pageRequest = PageRequest.of(page, linesPerPage, Direction.valueOf(direction), orderBy);
+		if (fields != null) {
+			return ResponseEntity.ok().body(service.search(filter, pageRequest, fields));
+		}
+		Page<ClientDTO> list = service.search(filter, pageRequest);
+		return ResponseEntity.ok().body(list);
+	}
+	
+	@GetMapping(value = "/search", params = { "count=false", "!cursor" })
+	public ResponseEntity<SliceDTO<ClientDTO>> searchSlice(ClientFilterDTO filter,
+			@RequestParam(value = "page", defaultValue = "0") Integer page,
+			@RequestParam(value = "linesPerPage", defaultValue = "12") Integer linesPerPage,
+			@RequestParam(value = "direction", defaultValue = "ASC") String direction,
+			@RequestParam(value = "orderBy", defaultValue = "name") String orderBy,
+			@RequestParam(value = "fields", required = false) String fields) {
+		rejectFields(fields);
+		PageRequest pageRequest = PageRequest.of(page, linesPerPage, Direction.valueOf(direction), orderBy);
+		SliceDTO<ClientDTO> list = service.searchSlice(filter, pageRequest);
+		return ResponseEntity.ok().body(list);
+	}
+	
+	@GetMapping(value = "/search", params = "cursor")
+	public ResponseEntity<SliceDTO<ClientDTO>> searchKeyset(ClientFilterDTO filter,
+			@RequestParam(value = "cursor") String cursor,
+			@RequestParam(value = "linesPerPage", defaultValue = "12") Integer linesPerPage,
+			@RequestParam(value = "direction", defaultValue = "ASC") String direction,
+			@RequestParam(value = "orderBy", defaultValue = "name") String orderBy,
+			@RequestParam(value = "fields", required = false) String fields) {
+		rejectFields(fields);
+		PageRequest pageRequest = PageRequest.of(0, linesPerPage, Direction.valueOf(direction), orderBy);
+		SliceDTO<ClientDTO> list = service.searchKeyset(filter, cursor, pageRequest);
+		return ResponseEntity.ok().body(list);
+	}
+
+	@GetMapping(value = "/count")
+	public ResponseEntity<CountDTO> count(@RequestParam(value = "name", required = false) String name,
+			@RequestParam(value = "income", required = false) Double income,
+			@RequestParam(value = "year", required = false) Integer birthDateYear) {
+		CountDTO count = service.count(name, income, birthDateYear);
+		return ResponseEntity.ok().body(count);
+	}
+
+	@GetMapping(value = "/income-stats")
+	public ResponseEntity<IncomeStatsDTO> incomeStats(
+			@RequestParam(value = "minIncome", required = false) Double minIncome,
+			@RequestParam(value = "maxIncome", required = false) Double maxIncome,
+			@RequestParam(value = "year", required = false) Integer birthDateYear,
+			@RequestParam(value = "children", required = false) Integer children,
+			@RequestParam(value = "bucketSize", defaultValue = "1000") Double bucketSize) {
+		IncomeStatsDTO stats = service.incomeStats(minIncome, maxIncome, birthDateYear, children, bucketSize);
+		return ResponseEntity.ok().body(stats);
+	}
+
+	@GetMapping(value = "/cpf/{cpf}")
+	public ResponseEntity<ClientDTO> findByCpf(@PathVariable String cpf) {
+		ClientDTO dto = service.findByCpf(cpf);
+		return okWithETag(dto).body(dto);
+	}
 
 	@GetMapping(value = "/{id}")
 	public ResponseEntity<ClientDTO> findById(@PathVariable Long id) {
 		ClientDTO dto = service.findById(id);
-		return ResponseEntity.ok().body(dto);
+		return okWithETag(dto).body(dto);
 	}
 
 	@PostMapping
-	public ResponseEntity<ClientDTO> insert(@RequestBody ClientDTO dto) {
+	public ResponseEntity<?> insert(@RequestBody ClientDTO dto) {
+		if (writeBehind != null) {
+			return accepted(writeBehind.submitInsert(dto));
+		}
 		dto = service.insert(dto);
 		URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(dto.getId()).toUri();
 		return ResponseEntity.created(uri).body(dto);
 	}
 
+	@PostMapping(value = "/batch")
+	public ResponseEntity<List<BatchItemResultDTO>> insertAll(@RequestBody List<ClientDTO> dtos) {
+		List<BatchItemResultDTO> results = batchService.insertAll(dtos);
+		return ResponseEntity.ok().body(results);
+	}
+
+	@PutMapping(value = "/batch")
+	public ResponseEntity<List<BatchItemResultDTO>> updateAll(@RequestBody List<ClientDTO> dtos) {
+		List<BatchItemResultDTO> results = batchService.updateAll(dtos);
+		return ResponseEntity.ok().body(results);
+	}
+
+	@DeleteMapping(value = "/batch")
+	public ResponseEntity<List<BatchItemResultDTO>> deleteAll(@RequestBody List<Long> ids) {
+		List<BatchItemResultDTO> results = batchService.deleteAll(ids);
+		return ResponseEntity.ok().body(results);
+	}
+
 	@PutMapping(value = "/{id}")
-	public ResponseEntity<ClientDTO> update(@PathVariable Long id, @RequestBody ClientDTO dto) {
-		dto = service.update(id, dto);
-		return ResponseEntity.ok().body(dto);
+	public ResponseEntity<?> update(@PathVariable Long id, @RequestBody ClientDTO dto,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		// a checagem de versão do If-Match precisa ser síncrona
+		if (writeBehind != null && ifMatch == null) {
+			return accepted(writeBehind.submitUpdate(id, dto));
+		}
+		dto = service.update(id, dto, expectedVersion(id, ifMatch));
+		return okWithETag(dto).body(dto);
+	}
+
+	/* Atualização parcial: só os campos presentes no corpo são gravados (null limpa o campo). */
+	@PatchMapping(value = "/{id}")
+	public ResponseEntity<ClientDTO> patch(@PathVariable Long id, @RequestBody JsonNode body,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		if (!body.isObject()) {
+			throw new InvalidParameterException("Body must be a JSON object");
+		}
+		Set<String> fields = new LinkedHashSet<>();
+		body.fieldNames().forEachRemaining(fields::add);
+		ClientDTO values;
+		try {
+			values = objectMapper.treeToValue(body, ClientDTO.class);
+		} catch (JsonProcessingException e) {
+			throw new InvalidParameterException("Invalid value: " + e.getOriginalMessage());
+		}
+		ClientDTO dto = service.patch(id, values, fields, expectedVersion(id, ifMatch));
+		return okWithETag(dto).body(dto);
+	}
+
+	@GetMapping(value = "/writes")
+	public ResponseEntity<WriteQueueStatusDTO> writeQueueStatus() {
+		return ResponseEntity.ok().body(writeBehind().queueStatus());
+	}
+
+	@GetMapping(value = "/writes/{trackingId}")
+	public ResponseEntity<WriteStatusDTO> writeStatus(@PathVariable String trackingId) {
+		return ResponseEntity.ok().body(writeBehind().findStatus(trackingId));
 	}
 
 	@DeleteMapping(value = "/{id}")
@@ -134,4 +520,53 @@ public class ClientResource {
 		service.delete(id);
 		return ResponseEntity.noContent().build();
 	}
+
+	private ResponseEntity<WriteStatusDTO> accepted(WriteStatusDTO status) {
+		URI uri = ServletUriComponentsBuilder.fromCurrentContextPath().path("/clients/writes/{trackingId}")
+				.buildAndExpand(status.getTrackingId()).toUri();
+		return ResponseEntity.accepted().location(uri).body(status);
+	}
+
+	private ClientWriteBehindService writeBehind() {
+		if (writeBehind == null) {
+			throw new ResourceNotFoundException("Write-behind mode is disabled");
+		}
+		return writeBehind;
+	}
+
+	/*
+	 * ETag forte "id-versão". Com ele no ResponseEntity o Spring MVC compara o
+	 * If-None-Match e responde 304 sem serializar o corpo.
+	 */
+	private static BodyBuilder okWithETag(ClientDTO dto) {
+		BodyBuilder builder = ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+		if (dto.getId() != null && dto.getVersion() != null) {
+			builder.eTag(dto.getId() + "-" + dto.getVersion());
+		}
+		return builder;
+	}
+
+	/* fields só vale para a listagem paginada; count=false e cursor devolvem ClientDTO inteiro. */
+	private static void rejectFields(String fields) {
+		if (fields != null) {
+			throw new InvalidParameterException("fields is not supported with count=false or cursor");
+		}
+	}
+	
+	/* Versão esperada pelo If-Match; sem cabeçalho ou com "*" não há verificação. */
+	private static Long expectedVersion(Long id, String ifMatch) {
+		if (ifMatch == null || ifMatch.trim().equals("*")) {
+			return null;
+		}
+		String prefix = "\"" + id + "-";
+		String tag = ifMatch.trim();
+		if (tag.startsWith(prefix) && tag.endsWith("\"") && tag.length() > prefix.length() + 1) {
+			try {
+				return Long.valueOf(tag.substring(prefix.length(), tag.length() - 1));
+			} catch (NumberFormatException e) {
+				// cai no 412 abaixo
+			}
+		}
+		throw new PreconditionFailedException("If-Match " + ifMatch + " does not match client " + id);
+	}
 }
@@ -0,0 +1,176 @@
+package com.iftm.client.services;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.iftm.client.config.CacheConfig;
+import com.iftm.client.dto.BatchItemResultDTO;
+import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.entities.Client;
+import com.iftm.client.repositories.ClientRepository;
+
+/*
+ * Escritas em lote: cada bloco de client.batch.chunk-size itens roda em uma
+ * transação própria e é enviado ao banco com JDBC batching. Se um bloco falha,
+ * os itens dele são repetidos um a um para apontar exatamente quais falharam.
+ */
+@Service
+public class ClientBatchService {
+
+	@Value("${client.batch.chunk-size:500}")
+	private int chunkSize;
+
+	@Autowired
+	private ClientRepository repository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private ClientNameIndex nameIndex;
+
+	/* Com 0 ou negativo o laço de inChunks não avança; falha já na subida. */
+	@PostConstruct
+	public void validateChunkSize() {
+		if (chunkSize <= 0) {
+			throw new IllegalStateException("client.batch.chunk-size must be greater than zero, got " + chunkSize);
+		}
+	}
+
+	@CacheEvict(cacheNames = CacheConfig.CLIENT_PAGES, allEntries = true)
+	public List<BatchItemResultDTO> insertAll(List<ClientDTO> dtos) {
+		return inChunks(dtos, x -> null, this::insertChunk);
+	}
+
+	@Caching(evict = { @CacheEvict(cacheNames = CacheConfig.CLIENTS, allEntries = true),
+			@CacheEvict(cacheNames = CacheConfig.CLIENT_PAGES, allEntries = true),
+			@CacheEvict(cacheNames = CacheConfig.CLIENTS_BY_CPF, allEntries = true) })
+	public List<BatchItemResultDTO> updateAll(List<ClientDTO> dtos) {
+		return inChunks(dtos, ClientDTO::getId, this::updateChunk);
+	}
+
+	@Caching(evict = { @CacheEvict(cacheNames = CacheConfig.CLIENTS, allEntries = true),
+			@CacheEvict(cacheNames = CacheConfig.CLIENT_PAGES, allEntries = true),
+			@CacheEvict(cacheNames = CacheConfig.CLIENTS_BY_CPF, allEntries = true) })
+	public List<BatchItemResultDTO> deleteAll(List<Long> ids) {
+		return inChunks(ids, x -> x, this::deleteChunk);
+	}
+
+	private List<BatchItemResultDTO> insertChunk(int offset, List<ClientDTO> dtos) {
+		List<Client> entities = new ArrayList<>(dtos.size());
+		for (ClientDTO dto : dtos) {
+			Client entity = ClientService.normalizeForWrite(dto).toEntity();
+			entity.setId(null);
+			entityManager.persist(entity);
+			entities.add(entity);
+		}
+		entityManager.flush();
+		entityManager.clear();
+
+		List<BatchItemResultDTO> results = new ArrayList<>(dtos.size());
+		for (int i = 0; i < entities.size(); i++) {
+			Client entity = entities.get(i);
+			nameIndex.putAfterCommit(entity.getId(), entity.getName());
+			results.add(new BatchItemResultDTO(offset + i, entity.getId(), BatchItemResultDTO.CREATED, null));
+		}
+		return results;
+	}
+
+	private List<BatchItemResultDTO> updateChunk(int offset, List<ClientDTO> dtos) {
+		Set<Long> ids = dtos.stream().map(ClientDTO::getId).filter(x -> x != null).collect(Collectors.toSet());
+		Map<Long, Client> found = repository.findAllById(ids).stream()
+				.collect(Collectors.toMap(Client::getId, Function.identity()));
+
+		List<BatchItemResultDTO> results = new ArrayList<>(dtos.size());
+		for (int i = 0; i < dtos.size(); i++) {
+			ClientDTO dto = dtos.get(i);
+			Client entity = dto.getId() == null ? null : found.get(dto.getId());
+			if (entity == null) {
+				results.add(new BatchItemResultDTO(offset + i, dto.getId(), BatchItemResultDTO.NOT_FOUND,
+						"Id not found " + dto.getId()));
+				continue;
+			}
+			ClientService.updateData(entity, ClientService.normalizeForWrite(dto));
+			nameIndex.putAfterCommit(entity.getId(), entity.getName());
+			results.add(new BatchItemResultDTO(offset + i, entity.getId(), BatchItemResultDTO.UPDATED, null));
+		}
+		entityManager.flush();
+		entityManager.clear();
+		return results;
+	}
+
+	private List<BatchItemResultDTO> deleteChunk(int offset, List<Long> ids) {
+		Set<Long> existing = new HashSet<>(repository.findExistingIds(ids));
+		if (!existing.isEmpty()) {
+			repository.deleteByIdIn(existing);
+		}
+
+		List<BatchItemResultDTO> results = new ArrayList<>(ids.size());
+		for (int i = 0; i < ids.size(); i++) {
+			Long id = ids.get(i);
+			if (existing.contains(id)) {
+				nameIndex.removeAfterCommit(id);
+				results.add(new BatchItemResultDTO(offset + i, id, BatchItemResultDTO.DELETED, null));
+			} else {
+				results.add(new BatchItemResultDTO(offset + i, id, BatchItemResultDTO.NOT_FOUND, "Id not found " + id));
+			}
+		}
+		return results;
+	}
+
+	private <T> List<BatchItemResultDTO> inChunks(List<T> items, Function<T, Long> idOf,
+			BiFunction<Integer, List<T>, List<BatchItemResultDTO>> writer) {
+		List<BatchItemResultDTO> results = new ArrayList<>(items.size());
+		for (int from = 0; from < items.size(); from += chunkSize) {
+			int to = Math.min(from + chunkSize, items.size());
+			results.addAll(runChunk(from, items.subList(from, to), idOf, writer));
+		}
+		return results;
+	}
+
+	private <T> List<BatchItemResultDTO> runChunk(int offset, List<T> chunk, Function<T, Long> idOf,
+			BiFunction<Integer, List<T>, List<BatchItemResultDTO>> writer) {
+		try {
+			return new TransactionTemplate(transactionManager).execute(status -> writer.apply(offset, chunk));
+		} catch (RuntimeException e) {
+			if (chunk.size() == 1) {
+				return List.of(new BatchItemResultDTO(offset, idOf.apply(chunk.get(0)), BatchItemResultDTO.FAILED,
+						failureMessage(e)));
+			}
+			List<BatchItemResultDTO> results = new ArrayList<>(chunk.size());
+			for (int i = 0; i < chunk.size(); i++) {
+				results.addAll(runChunk(offset + i, chunk.subList(i, i + 1), idOf, writer));
+			}
+			return results;
+		}
+	}
+
+	private String failureMessage(RuntimeException e) {
+		if (e instanceof DataIntegrityViolationException) {
+			return "Integrity violation";
+		}
+		return e.getMessage();
+	}
+
+}
@@ -0,0 +1,232 @@
+package com.iftm.client.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.repositories.ClientRepository;
+import com.iftm.client.repositories.NameFolding;
+
+/*
+ * Índice invertido de n-gramas em memória sobre Client.name. Responde buscas
+ * "contém" sem acentos e sem diferenciar maiúsculas, devolvendo os ids que
+ * casam; a paginação continua sendo feita pelo banco. Buscas com mais de
+ * max-candidates resultados ficam com o LIKE do banco, que pagina sem
+ * mandar a lista inteira de ids num IN.
+ *
+ * Só serve para uma única instância: o índice só vê as escritas feitas por
+ * ClientService, ClientBatchService e pela fila write-behind deste processo.
+ * Escritas de outra instância, de migrações Flyway ou de SQL direto não
+ * chegam aqui, e as buscas passariam a devolver linhas erradas. Por isso
+ * client.name-index.enabled fica desligado por padrão.
+ */
+@Component
+public class ClientNameIndex {
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<String, Set<Long>> postings = new HashMap<>();
+	private final Map<Long, String> names = new HashMap<>();
+
+	@Value("${client.name-index.enabled:false}")
+	private boolean enabled;
+
+	@Value("${client.name-index.gram-size:3}")
+	private int gramSize = 3;
+
+	@Value("${client.name-index.max-candidates:1000}")
+	private int maxCandidates = 1000;
+
+	/* Só depois do primeiro rebuild o índice conhece todos os nomes. */
+	private volatile boolean ready;
+
+	@Autowired
+	private ClientRepository repository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	public ClientNameIndex() {
+	}
+
+	/* Índice montado à mão (com put), já pronto para responder. */
+	public ClientNameIndex(boolean enabled, int gramSize, int maxCandidates) {
+		this.enabled = enabled;
+		this.gramSize = gramSize;
+		this.maxCandidates = maxCandidates;
+		this.ready = true;
+	}
+
+	public ClientNameIndex(boolean enabled, int gramSize) {
+		this(enabled, gramSize, 1000);
+	}
+
+	public boolean isReady() {
+		return enabled && ready;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		if (!enabled) {
+			return;
+		}
+		TransactionTemplate template = new TransactionTemplate(transactionManager);
+		template.setReadOnly(true);
+		template.executeWithoutResult(status -> {
+			lock.writeLock().lock();
+			try (Stream<ClientDTO> stream = repository.streamAllDTO()) {
+				postings.clear();
+				names.clear();
+				stream.forEach(x -> add(x.getId(), x.getName()));
+				ready = true;
+			} finally {
+				lock.writeLock().unlock();
+			}
+		});
+	}
+
+	/*
+	 * Retorna os ids cujo nome contém o texto, ou null quando o índice não
+	 * consegue responder (desligado, ainda não montado, texto menor que um
+	 * n-grama ou mais de max-candidates resultados).
+	 */
+	public Set<Long> search(String text) {
+		if (!isReady() || text == null) {
+			return null;
+		}
+		String query = normalize(text);
+		if (query.length() < gramSize) {
+			return null;
+		}
+		lock.readLock().lock();
+		try {
+			List<Set<Long>> lists = new ArrayList<>();
+			for (String gram : grams(query)) {
+				Set<Long> ids = postings.get(gram);
+				if (ids == null) {
+					return Collections.emptySet();
+				}
+				lists.add(ids);
+			}
+			lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+			Set<Long> result = new HashSet<>();
+			for (Long id : lists.get(0)) {
+				if (names.get(id).contains(query)) {
+					result.add(id);
+					if (result.size() > maxCandidates) {
+						return null;
+					}
+				}
+			}
+			return result;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public void put(Long id, String name) {
+		if (!enabled) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			removeEntry(id);
+			add(id, name);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(Long id) {
+		if (!enabled) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			removeEntry(id);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void putAfterCommit(Long id, String name) {
+		afterCommit(() -> put(id, name));
+	}
+
+	public void removeAfterCommit(Long id) {
+		afterCommit(() -> remove(id));
+	}
+
+	public static String normalize(String text) {
+		return NameFolding.fold(text);
+	}
+
+	private void afterCommit(Runnable action) {
+		if (!enabled) {
+			return;
+		}
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			action.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
+		});
+	}
+
+	private void add(Long id, String name) {
+		if (name == null) {
+			return;
+		}
+		String normalized = normalize(name);
+		names.put(id, normalized);
+		for (String gram : grams(normalized)) {
+			postings.computeIfAbsent(gram, k -> new HashSet<>()).add(id);
+		}
+	}
+
+	private void removeEntry(Long id) {
+		String previous = names.remove(id);
+		if (previous == null) {
+			return;
+		}
+		for (String gram : grams(previous)) {
+			Set<Long> ids = postings.get(gram);
+			if (ids != null) {
+				ids.remove(id);
+				if (ids.isEmpty()) {
+					postings.remove(gram);
+				}
+			}
+		}
+	}
+
+	private Set<String> grams(String text) {
+		Set<String> result = new HashSet<>();
+		for (int i = 0; i + gramSize <= text.length(); i++) {
+			result.add(text.substring(i, i + gramSize));
+		}
+		return result;
+	}
+
+}
@@ -1,105 +1,587 @@
 package com.iftm.client.services;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
-
-import javax.persistence.EntityNotFoundException;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.iftm.client.config.CacheConfig;
 import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.dto.ClientFilterDTO;
+import com.iftm.client.dto.CountDTO;
+import com.iftm.client.dto.IncomeBucketDTO;
+import com.iftm.client.dto.IncomeStatsDTO;
+import com.iftm.client.dto.SliceDTO;
 import com.iftm.client.entities.Client;
+import com.iftm.client.repositories.BirthDateRange;
+import com.iftm.client.repositories.BirthYears;
 import com.iftm.client.repositories.ClientRepository;
+import com.iftm.client.repositories.ClientSpecifications;
+import com.iftm.client.repositories.KeysetCursor;
 import com.iftm.client.services.exceptions.DatabaseException;
+import com.iftm.client.services.exceptions.InvalidCursorException;
+import com.iftm.client.services.exceptions.InvalidParameterException;
+import com.iftm.client.services.exceptions.PreconditionFailedException;
 import com.iftm.client.services.exceptions.ResourceNotFoundException;
 
 @Service
 public class ClientService {
 	
+	/* Restrição de unicidade criada em V3__unique_cpf.sql. */
+	private static final String CPF_CONSTRAINT = "UK_CLIENT_CPF";
+	
+	/* Campos de ClientDTO aceitos em fields. */
+	private static final Set<String> SELECTABLE_FIELDS = Set.of("id", "name", "cpf", "income", "birthDate",
+			"children");
+	
+	/* Limite de faixas em incomeStats; o resultado inteiro vai para CLIENT_PAGES. */
+	private static final int MAX_INCOME_BUCKETS = 1000;
+	
 	@Autowired
 	private ClientRepository repository;
 	
+	@Autowired
+	private ClientNameIndex nameIndex;
+	
 	@Transactional(readOnly = true)
 	public List<ClientDTO> findAll() {
-		List<Client> list = repository.findAll();
-		return list.stream().map(x -> new ClientDTO(x)).collect(Collectors.toList());
+		return repository.findAllDTO();
+	}
+	
+	@Transactional(readOnly = true)
+	public void exportAll(Consumer<ClientDTO> action) {
+		try (Stream<ClientDTO> stream = repository.streamAllDTO()) {
+			stream.forEach(action);
+		}
 	}
 	
 	@Transactional(readOnly = true)
+	@Cacheable(cacheNames = CacheConfig.CLIENT_PAGES, key = "{'all', #pageRequest}")
 	public Page<ClientDTO> findAllPaged(PageRequest pageRequest) {
-		Page<Client> list =  repository.findAll(pageRequest);
-		return list.map(x -> new ClientDTO(x));
+		return repository.findAllDTO(pageRequest);
 	}
 	
+	/* Só os campos pedidos em fields ("id,name"), tanto no SELECT quanto no JSON. */
 	@Transactional(readOnly = true)
+	@Cacheable(cacheNames = CacheConfig.CLIENT_PAGES,
+			key = "{'allFields', T(com.iftm.client.services.ClientService).selectedFields(#fields), #pageRequest}")
+	public Page<Map<String, Object>> findAllPaged(PageRequest pageRequest, String fields) {
+		return repository.findFieldsPage(ClientSpecifications.all(), selectedFields(fields), pageRequest);
+	}
+	
+	@Transactional(readOnly = true)
+	@Cacheable(cacheNames = CacheConfig.CLIENT_PAGES, key = "{'income', #income, #pageRequest}")
 	public Page<ClientDTO> findByIncome(Double income, PageRequest pageRequest) {
-		Page<Client> list =  repository.findByIncome(income, pageRequest);
-		return list.map(x -> new ClientDTO(x));
+		return repository.findDTOByIncome(income, pageRequest);
 	}
 	
 	@Transactional(readOnly = true)
+	@Cacheable(cacheNames = CacheConfig.CLIENT_PAGES, key = "{'name', #name, #pageRequest}")
 	public Page<ClientDTO> findByName(String name, PageRequest pageRequest) {
-		Page<Client> list =  repository.findByNameContainingIgnoreCase(name, pageRequest);
-		return list.map(x -> new ClientDTO(x));
+		Set<Long> ids = nameIndex.search(name);
+		if (ids != null) {
+			if (ids.isEmpty()) {
+				return new PageImpl<>(List.of(), pageRequest, 0);
+			}
+			return repository.findDTOByIdIn(ids, pageRequest);
+		}
+		return repository.findDTOByName(name, pageRequest);
 	}
 	
 	@Transactional(readOnly = true)
+	@Cacheable(cacheNames = CacheConfig.CLIENT_PAGES, key = "{'birthYear', #birthDateYear, #pageRequest}")
 	public Page<ClientDTO> findByYearOfBirthDate(Integer birthDateYear, PageRequest pageRequest) {
-			Page<Client> list =  repository.findByYearOfBirthDate(birthDateYear, pageRequest);
-		return list.map(x -> new ClientDTO(x));
+		return repository.findDTOByYearOfBirthDate(validYear(birthDateYear), pageRequest);
 	}
 
 	@Transactional(readOnly = true)
+	@Cacheable(cacheNames = CacheConfig.CLIENT_PAGES, key = "{'birthDateAfter', #birthDate, #pageRequest}")
 	public Page<ClientDTO> findByBirthDateAfter(Instant birthDate, PageRequest pageRequest) {
-			Page<Client> list =  repository.findByBirthDateAfter(birthDate, pageRequest);
-		return list.map(x -> new ClientDTO(x));
+		return repository.findDTOByBirthDateAfter(birthDate, pageRequest);
 	}
 	
 	@Transactional(readOnly = true)
+	@Cacheable(cacheNames = CacheConfig.CLIENT_PAGES, key = "{'birthDate', #after, #before, #between, #pageRequest}")
+	public Page<ClientDTO> findByBirthDate(String after, String before, String between, PageRequest pageRequest) {
+		BirthDateRange range = birthDateRange(after, before, between);
+		if (range.getStart() != null && range.getEnd() != null) {
+			return repository.findDTOByBirthDateRange(range.getStart(), range.getEnd(), pageRequest);
+		}
+		if (range.getStart() != null) {
+			return repository.findDTOByBirthDateFrom(range.getStart(), pageRequest);
+		}
+		if (range.getEnd() != null) {
+			return repository.findDTOByBirthDateBefore(range.getEnd(), pageRequest);
+		}
+		return repository.findAllDTO(pageRequest);
+	}
+	
+	/*
+	 * Todos os filtros numa única consulta. Nome passa pelo índice de n-gramas
+	 * (id IN, chave primária) e renda/nascimento viram intervalos sobre as
+	 * colunas indexadas, para o banco escolher o índice mais seletivo.
+	 */
+	@Transactional(readOnly = true)
+	@Cacheable(cacheNames = CacheConfig.CLIENT_PAGES, key = "{'search', #filter, #pageRequest}")
+	public Page<ClientDTO> search(ClientFilterDTO filter, PageRequest pageRequest) {
+		return repository.findPage(searchSpecification(filter), pageRequest);
+	}
+	
+	@Transactional(readOnly = true)
+	@Cacheable(cacheNames = CacheConfig.CLIENT_PAGES,
+			key = "{'searchFields', #filter, T(com.iftm.client.services.ClientService).selectedFields(#fields), #pageRequest}")
+	public Page<Map<String, Object>> search(ClientFilterDTO filter, PageRequest pageRequest, String fields) {
+		return repository.findFieldsPage(searchSpecification(filter), selectedFields(fields), pageRequest);
+	}
+	
+	@Transactional(readOnly = true)
+	@Cacheable(cacheNames = CacheConfig.CLIENT_PAGES,
+			key = "{'incomeStats', #minIncome, #maxIncome, #birthDateYear, #children, #bucketSize}")
+	public IncomeStatsDTO incomeStats(Double minIncome, Double maxIncome, Integer birthDateYear, Integer children,
+			Double bucketSize) {
+		if (bucketSize == null || bucketSize <= 0 || bucketSize.isNaN() || bucketSize.isInfinite()) {
+			throw new InvalidParameterException("bucketSize must be a finite number greater than zero");
+		}
+		if (minIncome != null && maxIncome != null && minIncome > maxIncome) {
+			throw new InvalidParameterException("minIncome must not be greater than maxIncome");
+		}
+		if (minIncome != null && maxIncome != null && (maxIncome - minIncome) / bucketSize > MAX_INCOME_BUCKETS) {
+			throw new InvalidParameterException(tooManyBuckets());
+		}
+		Specification<Client> spec = ClientSpecifications.incomeInRange(minIncome, maxIncome);
+		if (birthDateYear != null) {
+			spec = spec.and(ClientSpecifications.birthYear(validYear(birthDateYear)));
+		}
+		if (children != null) {
+			spec = spec.and(ClientSpecifications.childrenEqual(children));
+		}
+		/*
+		 * Sem faixa de renda fechada o número de faixas só é conhecido na consulta,
+		 * que traz uma a mais que o limite para detectar o excesso.
+		 */
+		List<IncomeBucketDTO> buckets = repository.findIncomeHistogram(spec, bucketSize, MAX_INCOME_BUCKETS + 1);
+		if (buckets.size() > MAX_INCOME_BUCKETS) {
+			throw new InvalidParameterException(tooManyBuckets());
+		}
+		long count = 0;
+		double sum = 0;
+		Double min = null;
+		Double max = null;
+		for (IncomeBucketDTO bucket : buckets) {
+			count += bucket.getCount();
+			sum += bucket.getSum();
+			min = min == null ? bucket.getMin() : Math.min(min, bucket.getMin());
+			max = max == null ? bucket.getMax() : Math.max(max, bucket.getMax());
+		}
+		Double average = count == 0 ? null : sum / count;
+		return new IncomeStatsDTO(count, sum, average, min, max, bucketSize, buckets);
+	}
+	
+	private static String tooManyBuckets() {
+		return "bucketSize too small: at most " + MAX_INCOME_BUCKETS + " buckets are allowed";
+	}
+	
+	/* Variantes "hasNext" das consultas paginadas acima, sem o COUNT do Page. */
+	
+	@Transactional(readOnly = true)
+	@Cacheable(cacheNames = CacheConfig.CLIENT_PAGES, key = "{'allSlice', #pageRequest}")
+	public SliceDTO<ClientDTO> findAllSlice(PageRequest pageRequest) {
+		return findSlice(ClientSpecifications.all(), pageRequest);
+	}
+	
+	@Transactional(readOnly = true)
+	@Cacheable(cacheNames = CacheConfig.CLIENT_PAGES, key = "{'incomeSlice', #income, #pageRequest}")
+	public SliceDTO<ClientDTO> findByIncomeSlice(Double income, PageRequest pageRequest) {
+		return findSlice(ClientSpecifications.incomeGreaterThanOrEqual(income), pageRequest);
+	}
+	
+	@Transactional(readOnly = true)
+	@Cacheable(cacheNames = CacheConfig.CLIENT_PAGES, key = "{'nameSlice', #name, #pageRequest}")
+	public SliceDTO<ClientDTO> findByNameSlice(String name, PageRequest pageRequest) {
+		return findSlice(nameSpecification(name), pageRequest);
+	}
+	
+	@Transactional(readOnly = true)
+	@Cacheable(cacheNames = CacheConfig.CLIENT_PAGES, key = "{'birthYearSlice', #birthDateYear, #pageRequest}")
+	public SliceDTO<ClientDTO> findByYearOfBirthDateSlice(Integer birthDateYear, PageRequest pageRequest) {
+		return findSlice(ClientSpecifications.birthYear(validYear(birthDateYear)), pageRequest);
+	}
+	
+	@Transactional(readOnly = true)
+	@Cacheable(cacheNames = CacheConfig.CLIENT_PAGES, key = "{'birthDateAfterSlice', #birthDate, #pageRequest}")
+	public SliceDTO<ClientDTO> findByBirthDateAfterSlice(Instant birthDate, PageRequest pageRequest) {
+		return findSlice(ClientSpecifications.birthDateAfter(birthDate), pageRequest);
+	}
+	
+	@Transactional(readOnly = true)
+	@Cacheable(cacheNames = CacheConfig.CLIENT_PAGES, key = "{'birthDateSlice', #after, #before, #between, #pageRequest}")
+	public SliceDTO<ClientDTO> findByBirthDateSlice(String after, String before, String between,
+			PageRequest pageRequest) {
+		return findSlice(ClientSpecifications.birthDateInRange(birthDateRange(after, before, between)), pageRequest);
+	}
+	
+	@Transactional(readOnly = true)
+	@Cacheable(cacheNames = CacheConfig.CLIENT_PAGES, key = "{'searchSlice', #filter, #pageRequest}")
+	public SliceDTO<ClientDTO> searchSlice(ClientFilterDTO filter, PageRequest pageRequest) {
+		return findSlice(searchSpecification(filter), pageRequest);
+	}
+	
+	/*
+	 * Total para as telas que ainda mostram um número. Fica em cache sem ser
+	 * invalidado pelas escritas (ver CacheConfig.CLIENT_COUNTS), então pode estar
+	 * defasado até a expiração; countedAt diz de quando é a contagem.
+	 */
+	@Transactional(readOnly = true)
+	@Cacheable(cacheNames = CacheConfig.CLIENT_COUNTS, key = "{#name, #income, #birthDateYear}")
+	public CountDTO count(String name, Double income, Integer birthDateYear) {
+		Specification<Client> spec = ClientSpecifications.all();
+		if (name != null && !name.isEmpty()) {
+			Set<Long> ids = nameIndex.search(name);
+			if (ids != null && income == null && birthDateYear == null) {
+				return new CountDTO((long) ids.size(), Instant.now());
+			}
+			spec = spec.and(ids != null ? ClientSpecifications.idIn(ids)
+					: ClientSpecifications.nameContainsIgnoreCase(name));
+		}
+		if (income != null) {
+			spec = spec.and(ClientSpecifications.incomeGreaterThanOrEqual(income));
+		}
+		if (birthDateYear != null) {
+			spec = spec.and(ClientSpecifications.birthYear(validYear(birthDateYear)));
+		}
+		return new CountDTO(repository.count(spec), Instant.now());
+	}
+	
+	@Transactional(readOnly = true)
+	public SliceDTO<ClientDTO> findAllKeyset(String cursor, PageRequest pageRequest) {
+		return findKeyset(ClientSpecifications.all(), cursor, pageRequest);
+	}
+	
+	@Transactional(readOnly = true)
+	public SliceDTO<ClientDTO> findByIncomeKeyset(Double income, String cursor, PageRequest pageRequest) {
+		return findKeyset(ClientSpecifications.incomeGreaterThanOrEqual(income), cursor, pageRequest);
+	}
+	
+	@Transactional(readOnly = true)
+	public SliceDTO<ClientDTO> findByNameKeyset(String name, String cursor, PageRequest pageRequest) {
+		return findKeyset(nameSpecification(name), cursor, pageRequest);
+	}
+	
+	@Transactional(readOnly = true)
+	public SliceDTO<ClientDTO> findByYearOfBirthDateKeyset(Integer birthDateYear, String cursor,
+			PageRequest pageRequest) {
+		return findKeyset(ClientSpecifications.birthYear(validYear(birthDateYear)), cursor, pageRequest);
+	}
+	
+	@Transactional(readOnly = true)
+	public SliceDTO<ClientDTO> findByBirthDateAfterKeyset(Instant birthDate, String cursor,
+			PageRequest pageRequest) {
+		return findKeyset(ClientSpecifications.birthDateAfter(birthDate), cursor, pageRequest);
+	}
+	
+	@Transactional(readOnly = true)
+	public SliceDTO<ClientDTO> findByBirthDateKeyset(String after, String before, String between, String cursor,
+			PageRequest pageRequest) {
+		return findKeyset(ClientSpecifications.birthDateInRange(birthDateRange(after, before, between)), cursor,
+				pageRequest);
+	}
+	
+	@Transactional(readOnly = true)
+	public SliceDTO<ClientDTO> searchKeyset(ClientFilterDTO filter, String cursor, PageRequest pageRequest) {
+		return findKeyset(searchSpecification(filter), cursor, pageRequest);
+	}
+	
+	@Transactional(readOnly = true)
+	@Cacheable(cacheNames = CacheConfig.CLIENTS, key = "#id")
 	public ClientDTO findById(Long id) {
-		Optional<Client> obj = repository.findById(id);
-		Client entity = obj.orElseThrow(() -> new ResourceNotFoundException("Entity not found"));
-		return new ClientDTO(entity);
+		Optional<ClientDTO> obj = repository.findDTOById(id);
+		return obj.orElseThrow(() -> new ResourceNotFoundException("Entity not found"));
+	}
+	
+	@Transactional(readOnly = true)
+	@Cacheable(cacheNames = CacheConfig.CLIENTS_BY_CPF, key = "T(com.iftm.client.entities.Client).normalizeCpf(#cpf)")
+	public ClientDTO findByCpf(String cpf) {
+		String normalized = validCpf(cpf);
+		Optional<ClientDTO> obj = repository.findDTOByCpf(normalized);
+		return obj.orElseThrow(() -> new ResourceNotFoundException("Entity not found"));
 	}
 	
 	@Transactional
+	@CacheEvict(cacheNames = CacheConfig.CLIENT_PAGES, allEntries = true)
 	public ClientDTO insert(ClientDTO dto) {
-		Client entity = dto.toEntity();
+		Client entity = normalizeForWrite(dto).toEntity();
+		if (entity.getCpf() != null && repository.existsByCpf(entity.getCpf())) {
+			throw new DatabaseException("CPF already registered");
+		}
 		entity = repository.save(entity);
+		nameIndex.putAfterCommit(entity.getId(), entity.getName());
 		return new ClientDTO(entity);
 	}
 	
+	/*
+	 * Um único UPDATE com a versão incrementada (e comparada, se veio If-Match)
+	 * no próprio comando; a unicidade do CPF fica a cargo de uk_client_cpf.
+	 * Só quando nenhuma linha muda é feita a consulta que separa 404 de 412.
+	 */
 	@Transactional
-	public ClientDTO update(Long id, ClientDTO dto) {
+	@Caching(evict = { @CacheEvict(cacheNames = CacheConfig.CLIENTS, key = "#id"),
+			@CacheEvict(cacheNames = CacheConfig.CLIENT_PAGES, allEntries = true),
+			@CacheEvict(cacheNames = CacheConfig.CLIENTS_BY_CPF, allEntries = true) })
+	public ClientDTO update(Long id, ClientDTO dto, Long expectedVersion) {
+		String cpf = normalizeForWrite(dto).getCpf();
+		int updated;
 		try {
-			Client entity = repository.getOne(id);
-			updateData(entity, dto);
-			entity = repository.save(entity);
-			return new ClientDTO(entity);
-		} catch (EntityNotFoundException e) {
-			throw new ResourceNotFoundException("Id not found " + id);
+			updated = expectedVersion == null
+					? repository.updateById(id, dto.getName(), cpf, dto.getIncome(), dto.getBirthDate(),
+							dto.getChildren())
+					: repository.updateByIdAndVersion(id, expectedVersion, dto.getName(), cpf, dto.getIncome(),
+							dto.getBirthDate(), dto.getChildren());
+		} catch (DataIntegrityViolationException e) {
+			throw integrityViolation(e);
+		}
+		return afterUpdate(id, updated, expectedVersion, dto.getName());
+	}
+	
+	/* Como update, mas só com os campos presentes em fields; os demais ficam como estão. */
+	@Transactional
+	@Caching(evict = { @CacheEvict(cacheNames = CacheConfig.CLIENTS, key = "#id"),
+			@CacheEvict(cacheNames = CacheConfig.CLIENT_PAGES, allEntries = true),
+			@CacheEvict(cacheNames = CacheConfig.CLIENTS_BY_CPF, allEntries = true) })
+	public ClientDTO patch(Long id, ClientDTO dto, Set<String> fields, Long expectedVersion) {
+		if (fields.isEmpty()) {
+			throw new InvalidParameterException("No fields to update");
+		}
+		Map<String, Object> values = new LinkedHashMap<>();
+		for (String field : fields) {
+			switch (field) {
+			case "name":
+				values.put(field, dto.getName());
+				break;
+			case "cpf":
+				String cpf = Client.normalizeCpf(dto.getCpf());
+				values.put(field, cpf == null ? null : validCpf(cpf));
+				break;
+			case "income":
+				values.put(field, dto.getIncome());
+				break;
+			case "birthDate":
+				values.put(field, dto.getBirthDate());
+				break;
+			case "children":
+				values.put(field, dto.getChildren());
+				break;
+			default:
+				throw new InvalidParameterException("Field " + field + " cannot be updated");
+			}
+		}
+		int updated;
+		try {
+			updated = repository.updateFields(id, expectedVersion, values);
+		} catch (DataIntegrityViolationException e) {
+			throw integrityViolation(e);
 		}
+		return afterUpdate(id, updated, expectedVersion, fields.contains("name") ? dto.getName() : null);
 	}
 	
+	@Transactional
+	@Caching(evict = { @CacheEvict(cacheNames = CacheConfig.CLIENTS, key = "#id"),
+			@CacheEvict(cacheNames = CacheConfig.CLIENT_PAGES, allEntries = true),
+			@CacheEvict(cacheNames = CacheConfig.CLIENTS_BY_CPF, allEntries = true) })
 	public void delete(Long id) {
+		int deleted;
 		try {
-			repository.deleteById(id);
-		} catch (EmptyResultDataAccessException e) {
-			throw new ResourceNotFoundException("Id not found " + id);
+			deleted = repository.deleteClientById(id);
 		} catch (DataIntegrityViolationException e) {
 			throw new DatabaseException("Integrity violation");
 		}
+		if (deleted == 0) {
+			throw new ResourceNotFoundException("Id not found " + id);
+		}
+		nameIndex.removeAfterCommit(id);
+	}
+
+	/* A resposta (e o ETag) vem do banco: o UPDATE em massa não passa pelo contexto de persistência. */
+	private ClientDTO afterUpdate(Long id, int updated, Long expectedVersion, String name) {
+		if (updated == 0) {
+			if (expectedVersion != null && repository.existsById(id)) {
+				throw new PreconditionFailedException("Client " + id + " is not at version " + expectedVersion);
+			}
+			throw new ResourceNotFoundException("Id not found " + id);
+		}
+		if (name != null) {
+			nameIndex.putAfterCommit(id, name);
+		}
+		return repository.findDTOById(id).orElseThrow(() -> new ResourceNotFoundException("Id not found " + id));
+	}
+
+	private static DatabaseException integrityViolation(DataIntegrityViolationException e) {
+		for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+			if (cause instanceof ConstraintViolationException) {
+				String constraint = ((ConstraintViolationException) cause).getConstraintName();
+				if (constraint != null && constraint.toUpperCase().contains(CPF_CONSTRAINT)) {
+					return new DatabaseException("CPF already registered");
+				}
+			}
+		}
+		return new DatabaseException("Integrity violation");
+	}
+
+	private SliceDTO<ClientDTO> findKeyset(Specification<Client> spec, String cursor, PageRequest pageRequest) {
+		Sort.Order order = pageRequest.getSort().stream().findFirst().orElse(Sort.Order.asc("id"));
+		String orderBy = order.getProperty();
+		Direction direction = order.getDirection();
+		if (!KeysetCursor.supports(orderBy)) {
+			throw new InvalidCursorException("Cursor pagination does not support orderBy " + orderBy);
+		}
+		KeysetCursor position = null;
+		if (cursor != null && !cursor.isEmpty()) {
+			try {
+				position = KeysetCursor.decode(cursor);
+			} catch (IllegalArgumentException e) {
+				throw new InvalidCursorException("Malformed cursor");
+			}
+			if (!position.getOrderBy().equals(orderBy) || position.getDirection() != direction) {
+				throw new InvalidCursorException("Cursor does not match orderBy " + orderBy + " " + direction);
+			}
+		}
+		Slice<ClientDTO> slice = repository.findSlice(spec, orderBy, direction, position, pageRequest.getPageSize());
+		String nextCursor = null;
+		if (slice.hasNext()) {
+			ClientDTO last = slice.getContent().get(slice.getNumberOfElements() - 1);
+			nextCursor = KeysetCursor.after(last, orderBy, direction).encode();
+		}
+		return new SliceDTO<>(slice.getContent(), pageRequest.getPageSize(), slice.hasNext(), nextCursor);
+	}
+
+	private SliceDTO<ClientDTO> findSlice(Specification<Client> spec, PageRequest pageRequest) {
+		Slice<ClientDTO> slice = repository.findSlice(spec, pageRequest);
+		return new SliceDTO<>(slice.getContent(), pageRequest.getPageSize(), slice.hasNext(), null);
+	}
+
+	private Specification<Client> nameSpecification(String name) {
+		Set<Long> ids = nameIndex.search(name);
+		return ids != null ? ClientSpecifications.idIn(ids) : ClientSpecifications.nameContainsIgnoreCase(name);
+	}
+
+	private Specification<Client> searchSpecification(ClientFilterDTO filter) {
+		Double minIncome = filter.getMinIncome();
+		Double maxIncome = filter.getMaxIncome();
+		if (minIncome != null && maxIncome != null && minIncome > maxIncome) {
+			throw new InvalidParameterException("minIncome must not be greater than maxIncome");
+		}
+		Specification<Client> spec = ClientSpecifications.all();
+		if (filter.getName() != null && !filter.getName().isEmpty()) {
+			spec = spec.and(nameSpecification(filter.getName()));
+		}
+		if (minIncome != null || maxIncome != null) {
+			spec = spec.and(ClientSpecifications.incomeInRange(minIncome, maxIncome));
+		}
+		BirthDateRange range = birthDateRange(filter.getAfter(), filter.getBefore(), filter.getBetween());
+		if (range.getStart() != null || range.getEnd() != null) {
+			spec = spec.and(ClientSpecifications.birthDateInRange(range));
+		}
+		if (filter.getChildren() != null) {
+			spec = spec.and(ClientSpecifications.childrenEqual(filter.getChildren()));
+		}
+		return spec;
+	}
+
+	/* Lista "name,income" validada, sem repetições e com o id sempre na frente; também é a chave de cache. */
+	public static List<String> selectedFields(String fields) {
+		Set<String> selected = new LinkedHashSet<>();
+		selected.add("id");
+		for (String field : fields.split(",")) {
+			String name = field.trim();
+			if (name.isEmpty()) {
+				continue;
+			}
+			if (!SELECTABLE_FIELDS.contains(name)) {
+				throw new InvalidParameterException("Unknown field " + name);
+			}
+			selected.add(name);
+		}
+		return new ArrayList<>(selected);
+	}
+
+	/* Ano de nascimento dentro da faixa de BirthYears (um ano de 9 dígitos faria o LocalDate falhar). */
+	private static Integer validYear(Integer year) {
+		if (year != null && !BirthYears.isValid(year)) {
+			throw new InvalidParameterException("Invalid year " + year);
+		}
+		return year;
+	}
+
+	/* Normaliza e exige os 11 dígitos do CPF. */
+	private static String validCpf(String cpf) {
+		String normalized = Client.normalizeCpf(cpf);
+		if (normalized == null || normalized.length() != 11) {
+			throw new InvalidParameterException("CPF must have 11 digits");
+		}
+		return normalized;
+	}
+
+	/* after, before e between=inicio,fim (anos ou datas ISO) combinados num único intervalo. */
+	private static BirthDateRange birthDateRange(String after, String before, String between) {
+		BirthDateRange range = new BirthDateRange(null, null);
+		try {
+			if (after != null && !after.isEmpty()) {
+				range = range.and(BirthDateRange.after(after));
+			}
+			if (before != null && !before.isEmpty()) {
+				range = range.and(BirthDateRange.before(before));
+			}
+			if (between != null && !between.isEmpty()) {
+				int comma = between.indexOf(',');
+				if (comma < 0) {
+					throw new IllegalArgumentException("between must be start,end");
+				}
+				BirthDateRange interval = BirthDateRange.between(between.substring(0, comma),
+						between.substring(comma + 1));
+				if (interval.isEmpty()) {
+					throw new IllegalArgumentException("between start must not be after end");
+				}
+				range = range.and(interval);
+			}
+		} catch (IllegalArgumentException e) {
+			throw new InvalidParameterException(e.getMessage());
+		}
+		return range;
+	}
+
+	/*
+	 * Deixa o CPF do dto só com dígitos e exige os 11 quando ele vem
+	 * preenchido. Todo caminho de escrita passa por aqui: ClientService,
+	 * ClientBatchService, a fila write-behind e o stack reativo.
+	 */
+	public static ClientDTO normalizeForWrite(ClientDTO dto) {
+		String cpf = Client.normalizeCpf(dto.getCpf());
+		dto.setCpf(cpf == null ? null : validCpf(cpf));
+		return dto;
 	}
 
-	private void updateData(Client entity, ClientDTO dto) {
+	static void updateData(Client entity, ClientDTO dto) {
 		entity.setName(dto.getName());
 		entity.setCpf(dto.getCpf());
 		entity.setIncome(dto.getIncome());
@@ -0,0 +1,223 @@
+package com.iftm.client.services;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.iftm.client.dto.BatchItemResultDTO;
+import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.dto.WriteQueueStatusDTO;
+import com.iftm.client.dto.WriteStatusDTO;
+import com.iftm.client.services.exceptions.ResourceNotFoundException;
+import com.iftm.client.services.exceptions.WriteQueueFullException;
+
+/*
+ * Inserções e atualizações com consistência eventual: o pedido entra numa fila
+ * limitada e uma única thread a esvazia em grupos de até batch-size itens,
+ * gravados pelo ClientBatchService (uma transação por bloco, JDBC batching).
+ * Com a fila cheia o produtor espera até offer-timeout e depois recebe
+ * WriteQueueFullException (503). No encerramento a fila é esvaziada antes de o
+ * DataSource ser fechado. O resultado de cada pedido fica consultável pelo
+ * trackingId até expirar (status-retention).
+ */
+@Service
+@ConditionalOnProperty(name = "client.write-behind.enabled")
+public class ClientWriteBehindService {
+
+	private static final Logger log = LoggerFactory.getLogger(ClientWriteBehindService.class);
+
+	private static final long POLL_MILLIS = 100;
+
+	@Value("${client.write-behind.capacity:10000}")
+	private int capacity;
+
+	@Value("${client.write-behind.batch-size:500}")
+	private int batchSize;
+
+	@Value("${client.write-behind.offer-timeout:50ms}")
+	private Duration offerTimeout;
+
+	@Value("${client.write-behind.status-retention:10m}")
+	private Duration statusRetention;
+
+	@Autowired
+	private ClientBatchService batchService;
+
+	private BlockingQueue<PendingWrite> queue;
+	private Cache<String, WriteStatusDTO> statuses;
+	private Thread drainer;
+	private volatile boolean running;
+
+	private final AtomicLong accepted = new AtomicLong();
+	private final AtomicLong completed = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+
+	@PostConstruct
+	public void start() {
+		queue = new ArrayBlockingQueue<>(capacity);
+		statuses = Caffeine.newBuilder().expireAfterWrite(statusRetention).build();
+		running = true;
+		drainer = new Thread(this::drainLoop, "client-write-behind");
+		drainer.start();
+	}
+
+	@PreDestroy
+	public void shutdown() throws InterruptedException {
+		running = false;
+		drainer.join();
+		// pedidos aceitos enquanto a thread terminava
+		List<PendingWrite> batch = new ArrayList<>(batchSize);
+		while (queue.drainTo(batch, batchSize) > 0) {
+			apply(batch);
+			batch.clear();
+		}
+	}
+
+	/* O CPF é validado já aqui, para o erro voltar como 400 e não como item FAILED. */
+	public WriteStatusDTO submitInsert(ClientDTO dto) {
+		ClientService.normalizeForWrite(dto);
+		dto.setId(null);
+		return submit(new PendingWrite(UUID.randomUUID().toString(), false, dto));
+	}
+
+	public WriteStatusDTO submitUpdate(Long id, ClientDTO dto) {
+		ClientService.normalizeForWrite(dto);
+		dto.setId(id);
+		return submit(new PendingWrite(UUID.randomUUID().toString(), true, dto));
+	}
+
+	public WriteStatusDTO findStatus(String trackingId) {
+		WriteStatusDTO status = statuses.getIfPresent(trackingId);
+		if (status == null) {
+			throw new ResourceNotFoundException("Tracking id not found " + trackingId);
+		}
+		return status;
+	}
+
+	public WriteQueueStatusDTO queueStatus() {
+		return new WriteQueueStatusDTO(queue.size(), capacity, accepted.get(), completed.get(), failed.get(),
+				rejected.get());
+	}
+
+	private WriteStatusDTO submit(PendingWrite write) {
+		if (!running) {
+			rejected.incrementAndGet();
+			throw new WriteQueueFullException("Write queue is shutting down");
+		}
+		WriteStatusDTO status = new WriteStatusDTO(write.trackingId, WriteStatusDTO.QUEUED, write.dto.getId(), null);
+		statuses.put(write.trackingId, status);
+		boolean offered;
+		try {
+			offered = queue.offer(write, offerTimeout.toNanos(), TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			offered = false;
+		}
+		if (!offered) {
+			statuses.invalidate(write.trackingId);
+			rejected.incrementAndGet();
+			throw new WriteQueueFullException("Write queue is full");
+		}
+		accepted.incrementAndGet();
+		return status;
+	}
+
+	private void drainLoop() {
+		List<PendingWrite> batch = new ArrayList<>(batchSize);
+		while (running || !queue.isEmpty()) {
+			try {
+				PendingWrite first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				queue.drainTo(batch, batchSize - 1);
+				apply(batch);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} finally {
+				batch.clear();
+			}
+		}
+	}
+
+	/* Inserções e atualizações do grupo vão em chamadas separadas, cada uma na ordem de chegada. */
+	private void apply(List<PendingWrite> batch) {
+		List<PendingWrite> inserts = new ArrayList<>();
+		List<PendingWrite> updates = new ArrayList<>();
+		for (PendingWrite write : batch) {
+			(write.update ? updates : inserts).add(write);
+		}
+		try {
+			if (!inserts.isEmpty()) {
+				record(inserts, batchService.insertAll(dtos(inserts)));
+			}
+			if (!updates.isEmpty()) {
+				record(updates, batchService.updateAll(dtos(updates)));
+			}
+		} catch (RuntimeException e) {
+			log.error("Write-behind batch of {} items failed", batch.size(), e);
+			for (PendingWrite write : batch) {
+				WriteStatusDTO current = statuses.getIfPresent(write.trackingId);
+				if (current == null || WriteStatusDTO.QUEUED.equals(current.getStatus())) {
+					failed.incrementAndGet();
+					statuses.put(write.trackingId, new WriteStatusDTO(write.trackingId, BatchItemResultDTO.FAILED,
+							write.dto.getId(), e.getMessage()));
+				}
+			}
+		}
+	}
+
+	private void record(List<PendingWrite> writes, List<BatchItemResultDTO> results) {
+		for (BatchItemResultDTO result : results) {
+			PendingWrite write = writes.get(result.getIndex());
+			boolean ok = BatchItemResultDTO.CREATED.equals(result.getStatus())
+					|| BatchItemResultDTO.UPDATED.equals(result.getStatus());
+			(ok ? completed : failed).incrementAndGet();
+			statuses.put(write.trackingId,
+					new WriteStatusDTO(write.trackingId, result.getStatus(), result.getId(), result.getMessage()));
+		}
+	}
+
+	private static List<ClientDTO> dtos(List<PendingWrite> writes) {
+		List<ClientDTO> dtos = new ArrayList<>(writes.size());
+		for (PendingWrite write : writes) {
+			dtos.add(write.dto);
+		}
+		return dtos;
+	}
+
+	private static class PendingWrite {
+
+		private final String trackingId;
+		private final boolean update;
+		private final ClientDTO dto;
+
+		PendingWrite(String trackingId, boolean update, ClientDTO dto) {
+			this.trackingId = trackingId;
+			this.update = update;
+			this.dto = dto;
+		}
+
+	}
+
+}
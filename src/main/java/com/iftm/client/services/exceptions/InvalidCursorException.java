@@ -0,0 +1,10 @@
+package com.iftm.client.services.exceptions;
+
+public class InvalidCursorException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+	
+	public InvalidCursorException(String msg) {
+		super(msg);
+	}
+
+}
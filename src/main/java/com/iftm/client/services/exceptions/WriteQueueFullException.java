@@ -0,0 +1,10 @@
+package com.iftm.client.services.exceptions;
+
+public class WriteQueueFullException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+	
+	public WriteQueueFullException(String msg) {
+		super(msg);
+	}
+
+}
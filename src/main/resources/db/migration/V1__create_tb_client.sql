@@ -0,0 +1,18 @@
+CREATE SEQUENCE tb_client_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE tb_client (
+	id BIGINT NOT NULL,
+	name VARCHAR(255) NOT NULL,
+	cpf VARCHAR(255),
+	income DOUBLE,
+	birth_date TIMESTAMP,
+	children INTEGER,
+	CONSTRAINT pk_tb_client PRIMARY KEY (id),
+	CONSTRAINT ck_client_income CHECK (income >= 0),
+	CONSTRAINT ck_client_children CHECK (children >= 0)
+);
+
+CREATE INDEX idx_client_name ON tb_client (name);
+CREATE INDEX idx_client_cpf ON tb_client (cpf);
+CREATE INDEX idx_client_income ON tb_client (income);
+CREATE INDEX idx_client_birth_date ON tb_client (birth_date);
@@ -0,0 +1,8 @@
+-- Carga em lote pelo CSVREAD do H2 (um único INSERT ... SELECT) no lugar do import.sql.
+-- As datas do CSV estão em UTC e são gravadas no fuso da sessão, como o Hibernate faz com Instant.
+INSERT INTO tb_client (id, name, cpf, income, birth_date, children)
+SELECT CAST(id AS BIGINT), name, cpf, CAST(income AS DOUBLE),
+	CAST(CAST(birth_date AS TIMESTAMP WITH TIME ZONE) AS TIMESTAMP), CAST(children AS INTEGER)
+FROM CSVREAD('classpath:db/seed/tb_client.csv', NULL, 'charset=UTF-8');
+
+ALTER SEQUENCE tb_client_seq RESTART WITH 13;
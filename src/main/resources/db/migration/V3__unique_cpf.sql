@@ -0,0 +1,3 @@
+-- CPF único; a busca por CPF usa o índice da constraint.
+DROP INDEX idx_client_cpf;
+ALTER TABLE tb_client ADD CONSTRAINT uk_client_cpf UNIQUE (cpf);
@@ -0,0 +1,2 @@
+-- Versão para o lock otimista (@Version em Client) e para os ETags de /clients/{id}.
+ALTER TABLE tb_client ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,164 @@
+package com.iftm.client.tests.reactive;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.tests.factory.ClientFactory;
+
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+@ActiveProfiles({ "test", "reactive" })
+@DirtiesContext
+public class ReactiveClientResourceTests {
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@Test
+	public void findByIdShouldReturnClientWhenIdExists() {
+
+		webTestClient.get().uri("/clients/{id}", 1L).accept(MediaType.APPLICATION_JSON).exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.id").isEqualTo(1)
+				.jsonPath("$.name").isEqualTo("Conceição Evaristo")
+				.jsonPath("$.birthDate").isEqualTo("2020-07-13T20:50:00Z");
+	}
+
+	@Test
+	public void findByIdShouldReturnNotFoundWhenIdDoesNotExist() {
+
+		webTestClient.get().uri("/clients/{id}", Long.MAX_VALUE).accept(MediaType.APPLICATION_JSON).exchange()
+				.expectStatus().isNotFound()
+				.expectBody()
+				.jsonPath("$.error").isEqualTo("Resource not found")
+				.jsonPath("$.path").isEqualTo("/clients/" + Long.MAX_VALUE);
+	}
+
+	@Test
+	public void findByIncomeShouldReturnPageOrderedByIncome() {
+
+		webTestClient.get()
+				.uri("/clients/find-by-income?income=4000&orderBy=income&direction=DESC&linesPerPage=2")
+				.accept(MediaType.APPLICATION_JSON).exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.content.length()").isEqualTo(2)
+				.jsonPath("$.content[0].income").isEqualTo(10000.0)
+				.jsonPath("$.totalElements").isNumber();
+	}
+
+	@Test
+	public void findAllShouldStreamNdjsonWhenRequested() {
+
+		Flux<ClientDTO> body = webTestClient.get().uri("/clients/findAll").accept(MediaType.APPLICATION_NDJSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+				.returnResult(ClientDTO.class).getResponseBody();
+
+		StepVerifier.create(body.take(3))
+				.expectNextMatches(dto -> dto.getId() == 1L)
+				.expectNextCount(2)
+				.verifyComplete();
+	}
+
+	@Test
+	public void insertThenDeleteShouldRoundTrip() {
+
+		ClientDTO dto = ClientFactory.createClientDTO(null);
+
+		ClientDTO created = webTestClient.post().uri("/clients").contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(dto).exchange()
+				.expectStatus().isCreated()
+				.expectHeader().valueMatches("Location", ".*/clients/\\d+")
+				.expectBody(ClientDTO.class).returnResult().getResponseBody();
+
+		Assertions.assertNotNull(created.getId());
+		Assertions.assertEquals(dto.getBirthDate(), created.getBirthDate());
+
+		List<ClientDTO> found = webTestClient.get().uri("/clients/find-by-name?name={name}", dto.getName())
+				.exchange().expectStatus().isOk()
+				.expectBody(RestPage.class).returnResult().getResponseBody().getContent();
+		Assertions.assertFalse(found.isEmpty());
+
+		webTestClient.delete().uri("/clients/{id}", created.getId()).exchange().expectStatus().isNoContent();
+		webTestClient.delete().uri("/clients/{id}", created.getId()).exchange().expectStatus().isNotFound();
+	}
+
+	@Test
+	public void updateShouldReturnNotFoundWhenIdDoesNotExist() {
+
+		webTestClient.put().uri("/clients/{id}", Long.MAX_VALUE).contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(ClientFactory.createClientDTO()).exchange()
+				.expectStatus().isNotFound();
+	}
+
+	@Test
+	public void insertShouldReturnBadRequestWhenCpfIsInvalid() {
+
+		ClientDTO dto = ClientFactory.createClientDTO(null);
+		dto.setCpf("123");
+
+		webTestClient.post().uri("/clients").contentType(MediaType.APPLICATION_JSON).bodyValue(dto).exchange()
+				.expectStatus().isBadRequest()
+				.expectBody()
+				.jsonPath("$.message").isEqualTo("CPF must have 11 digits");
+	}
+
+	@Test
+	public void exportShouldReturnBadRequestWhenFormatIsUnknown() {
+
+		webTestClient.get().uri("/clients/export?format=xml").exchange()
+				.expectStatus().isBadRequest()
+				.expectBody()
+				.jsonPath("$.message").isEqualTo("Unknown export format xml");
+	}
+
+	@Test
+	public void insertShouldReturnBadRequestWhenCpfIsDuplicated() {
+
+		ClientDTO dto = ClientFactory.createClientDTO(null);
+		dto.setCpf("10619244881");
+
+		webTestClient.post().uri("/clients").contentType(MediaType.APPLICATION_JSON).bodyValue(dto).exchange()
+				.expectStatus().isBadRequest()
+				.expectBody()
+				.jsonPath("$.message").isEqualTo("Integrity violation");
+	}
+
+	@Test
+	public void findAllShouldReturnBadRequestWhenDirectionIsInvalid() {
+
+		webTestClient.get().uri("/clients?direction=SIDEWAYS").exchange()
+				.expectStatus().isBadRequest();
+	}
+
+	static class RestPage {
+
+		private List<ClientDTO> content;
+
+		public List<ClientDTO> getContent() {
+			return content;
+		}
+
+		public void setContent(List<ClientDTO> content) {
+			this.content = content;
+		}
+
+	}
+
+}
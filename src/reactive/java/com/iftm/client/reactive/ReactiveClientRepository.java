@@ -0,0 +1,175 @@
+package com.iftm.client.reactive;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Repository;
+
+import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.repositories.BirthYears;
+import com.iftm.client.repositories.NameFolding;
+
+import io.r2dbc.spi.Row;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/*
+ * Mesmas consultas de ClientRepository, escritas em SQL sobre R2DBC. As datas
+ * são lidas e gravadas no fuso da JVM, como o Hibernate faz com Instant.
+ */
+@Repository
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveClientRepository {
+
+	private static final String SELECT = "SELECT id, name, cpf, income, birth_date, children, version FROM tb_client";
+
+	/* Mesmo allocationSize do @SequenceGenerator de Client (pooled-lo). */
+	private static final int ALLOCATION_SIZE = 50;
+
+	private static final Map<String, String> COLUMNS = Map.of("id", "id", "name", "name", "cpf", "cpf", "income",
+			"income", "birthDate", "birth_date", "children", "children");
+
+	@Autowired
+	private DatabaseClient client;
+
+	private long nextId;
+	private long idLimit;
+
+	public Mono<ClientDTO> findById(Long id) {
+		return client.sql(SELECT + " WHERE id = :id").bind("id", id).map(this::toDTO).one();
+	}
+
+	public Flux<ClientDTO> findAll() {
+		return client.sql(SELECT + " ORDER BY id").map(this::toDTO).all();
+	}
+
+	public Mono<Page<ClientDTO>> findAll(Pageable pageable) {
+		return page("", Map.of(), pageable);
+	}
+
+	public Mono<Page<ClientDTO>> findByIncome(Double income, Pageable pageable) {
+		return page(" WHERE income >= :income", Map.of("income", income), pageable);
+	}
+
+	public Mono<Page<ClientDTO>> findByName(String name, Pageable pageable) {
+		return page(" WHERE TRANSLATE(LOWER(name), '" + NameFolding.ACCENTED + "', '" + NameFolding.UNACCENTED
+				+ "') LIKE CONCAT('%', :name, '%') ESCAPE '\\'", Map.of("name", NameFolding.foldForLike(name)),
+				pageable);
+	}
+
+	public Mono<Page<ClientDTO>> findByYearOfBirthDate(Integer birthDateYear, Pageable pageable) {
+		Instant start = BirthYears.startOf(birthDateYear);
+		Instant end = BirthYears.endOf(birthDateYear);
+		return page(" WHERE birth_date >= :start AND birth_date < :end",
+				Map.of("start", toLocal(start), "end", toLocal(end)), pageable);
+	}
+
+	public Mono<Page<ClientDTO>> findByBirthDateAfter(Instant birthDate, Pageable pageable) {
+		return page(" WHERE birth_date > :birthDate", Map.of("birthDate", toLocal(birthDate)), pageable);
+	}
+
+	public Mono<ClientDTO> insert(ClientDTO dto) {
+		return nextId().flatMap(id -> bindFields(client.sql("INSERT INTO tb_client "
+				+ "(id, name, cpf, income, birth_date, children) VALUES (:id, :name, :cpf, :income, :birthDate, :children)")
+				.bind("id", id), dto).fetch().rowsUpdated().thenReturn(id))
+				// a coluna version começa em 0 (DEFAULT de V4__client_version.sql)
+				.map(id -> new ClientDTO(id, dto.getName(), dto.getCpf(), dto.getIncome(), dto.getBirthDate(),
+						dto.getChildren(), 0L));
+	}
+
+	public Mono<Integer> update(Long id, ClientDTO dto) {
+		return bindFields(client.sql("UPDATE tb_client SET name = :name, cpf = :cpf, income = :income, "
+				+ "birth_date = :birthDate, children = :children, version = version + 1 WHERE id = :id").bind("id", id), dto).fetch()
+				.rowsUpdated();
+	}
+
+	public Mono<Integer> deleteById(Long id) {
+		return client.sql("DELETE FROM tb_client WHERE id = :id").bind("id", id).fetch().rowsUpdated();
+	}
+
+	private Mono<Page<ClientDTO>> page(String where, Map<String, Object> params, Pageable pageable) {
+		GenericExecuteSpec select = client.sql(SELECT + where + orderBy(pageable.getSort())
+				+ " LIMIT " + pageable.getPageSize() + " OFFSET " + pageable.getOffset());
+		GenericExecuteSpec count = client.sql("SELECT COUNT(*) FROM tb_client" + where);
+		for (Map.Entry<String, Object> param : params.entrySet()) {
+			select = select.bind(param.getKey(), param.getValue());
+			count = count.bind(param.getKey(), param.getValue());
+		}
+		Mono<Long> total = count.map(row -> row.get(0, Long.class)).one();
+		return select.map(this::toDTO).all().collectList()
+				.zipWith(total, (content, size) -> new PageImpl<>(content, pageable, size));
+	}
+
+	private String orderBy(Sort sort) {
+		if (sort.isUnsorted()) {
+			return " ORDER BY id";
+		}
+		return sort.stream().map(order -> column(order.getProperty()) + " " + order.getDirection().name())
+				.collect(Collectors.joining(", ", " ORDER BY ", ", id"));
+	}
+
+	private String column(String property) {
+		String column = COLUMNS.get(property);
+		if (column == null) {
+			throw new IllegalArgumentException("No property " + property + " found for type Client");
+		}
+		return column;
+	}
+
+	/*
+	 * Reserva blocos de ids na sequência do mesmo jeito que o otimizador
+	 * pooled-lo do Hibernate, para os dois stacks poderem gravar na mesma tabela.
+	 */
+	private Mono<Long> nextId() {
+		synchronized (this) {
+			if (nextId < idLimit) {
+				return Mono.just(nextId++);
+			}
+		}
+		return client.sql("SELECT NEXT VALUE FOR tb_client_seq").map(row -> row.get(0, Long.class)).one()
+				.map(lo -> {
+					synchronized (this) {
+						nextId = lo + 1;
+						idLimit = lo + ALLOCATION_SIZE;
+					}
+					return lo;
+				});
+	}
+
+	private GenericExecuteSpec bindFields(GenericExecuteSpec spec, ClientDTO dto) {
+		spec = bind(spec, "name", dto.getName(), String.class);
+		spec = bind(spec, "cpf", dto.getCpf(), String.class);
+		spec = bind(spec, "income", dto.getIncome(), Double.class);
+		spec = bind(spec, "birthDate", dto.getBirthDate() == null ? null : toLocal(dto.getBirthDate()),
+				LocalDateTime.class);
+		return bind(spec, "children", dto.getChildren(), Integer.class);
+	}
+
+	private GenericExecuteSpec bind(GenericExecuteSpec spec, String name, Object value, Class<?> type) {
+		return value == null ? spec.bindNull(name, type) : spec.bind(name, value);
+	}
+
+	private ClientDTO toDTO(Row row) {
+		LocalDateTime birthDate = row.get("birth_date", LocalDateTime.class);
+		return new ClientDTO(row.get("id", Long.class), row.get("name", String.class), row.get("cpf", String.class),
+				row.get("income", Double.class), birthDate == null ? null : birthDate.atZone(ZoneId.systemDefault())
+						.toInstant(), row.get("children", Integer.class), row.get("version", Long.class));
+	}
+
+	private static LocalDateTime toLocal(Instant instant) {
+		return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+	}
+
+}
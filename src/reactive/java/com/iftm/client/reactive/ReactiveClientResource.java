@@ -0,0 +1,168 @@
+package com.iftm.client.reactive;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.repositories.BirthYears;
+import com.iftm.client.resources.ClientExportFormat;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/*
+ * Mesmas rotas e DTOs de ClientResource sobre WebFlux. As listas em streaming
+ * (/findAll com Accept application/x-ndjson e /export) só pedem novas linhas
+ * ao R2DBC conforme o cliente consome a resposta.
+ */
+@RestController
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+@RequestMapping(value = "/clients")
+public class ReactiveClientResource {
+
+	private static final int STREAM_PREFETCH = 256;
+
+	@Autowired
+	private ReactiveClientService service;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@GetMapping
+	public Mono<ResponseEntity<Page<ClientDTO>>> findAll(
+			@RequestParam(value = "page", defaultValue = "0") Integer page,
+			@RequestParam(value = "linesPerPage", defaultValue = "12") Integer linesPerPage,
+			@RequestParam(value = "direction", defaultValue = "ASC") String direction,
+			@RequestParam(value = "orderBy", defaultValue = "name") String orderBy) {
+		PageRequest pageRequest = PageRequest.of(page, linesPerPage, Direction.valueOf(direction), orderBy);
+		return service.findAllPaged(pageRequest).map(list -> ResponseEntity.ok().body(list));
+	}
+
+	@GetMapping(value = "/findAll", produces = { MediaType.APPLICATION_JSON_VALUE,
+			MediaType.APPLICATION_NDJSON_VALUE })
+	public Flux<ClientDTO> findAll() {
+		return service.findAll().limitRate(STREAM_PREFETCH);
+	}
+
+	@GetMapping(value = "/export")
+	public ResponseEntity<Flux<DataBuffer>> export(
+			@RequestParam(value = "format", defaultValue = "ndjson") String format) {
+		ClientExportFormat exportFormat = ClientExportFormat.fromName(format);
+		ObjectWriter json = objectMapper.writerFor(ClientDTO.class);
+		Flux<String> header = Mono.fromCallable(() -> {
+			StringWriter writer = new StringWriter();
+			exportFormat.writeHeader(writer);
+			return writer.toString();
+		}).filter(text -> !text.isEmpty()).flux();
+		Flux<String> rows = service.findAll().limitRate(STREAM_PREFETCH).map(dto -> {
+			StringWriter writer = new StringWriter();
+			try {
+				exportFormat.writeRow(writer, json, dto);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return writer.toString();
+		});
+		Flux<DataBuffer> body = header.concatWith(rows)
+				.map(text -> DefaultDataBufferFactory.sharedInstance.wrap(text.getBytes(StandardCharsets.UTF_8)));
+		return ResponseEntity.ok().contentType(MediaType.parseMediaType(exportFormat.getMediaType())).body(body);
+	}
+
+	@GetMapping(value = "/find-by-name")
+	public Mono<ResponseEntity<Page<ClientDTO>>> findByName(
+			@RequestParam(value = "page", defaultValue = "0") Integer page,
+			@RequestParam(value = "linesPerPage", defaultValue = "12") Integer linesPerPage,
+			@RequestParam(value = "direction", defaultValue = "ASC") String direction,
+			@RequestParam(value = "orderBy", defaultValue = "name") String orderBy,
+			@RequestParam(value = "name", defaultValue = "") String name) {
+		PageRequest pageRequest = PageRequest.of(page, linesPerPage, Direction.valueOf(direction), orderBy);
+		return service.findByName(name, pageRequest).map(list -> ResponseEntity.ok().body(list));
+	}
+
+	@GetMapping(value = "/find-by-income")
+	public Mono<ResponseEntity<Page<ClientDTO>>> findByIncome(
+			@RequestParam(value = "page", defaultValue = "0") Integer page,
+			@RequestParam(value = "linesPerPage", defaultValue = "12") Integer linesPerPage,
+			@RequestParam(value = "direction", defaultValue = "ASC") String direction,
+			@RequestParam(value = "orderBy", defaultValue = "name") String orderBy,
+			@RequestParam(value = "income", defaultValue = "") Double income) {
+		PageRequest pageRequest = PageRequest.of(page, linesPerPage, Direction.valueOf(direction), orderBy);
+		return service.findByIncome(income, pageRequest).map(list -> ResponseEntity.ok().body(list));
+	}
+
+	@GetMapping(value = "/find-by-birth-year")
+	public Mono<ResponseEntity<Page<ClientDTO>>> findByYearOfBirthDate(
+			@RequestParam(value = "page", defaultValue = "0") Integer page,
+			@RequestParam(value = "linesPerPage", defaultValue = "12") Integer linesPerPage,
+			@RequestParam(value = "direction", defaultValue = "ASC") String direction,
+			@RequestParam(value = "orderBy", defaultValue = "name") String orderBy,
+			@RequestParam(value = "year", defaultValue = "") Integer birthDateYear) {
+		PageRequest pageRequest = PageRequest.of(page, linesPerPage, Direction.valueOf(direction), orderBy);
+		Mono<Page<ClientDTO>> list = birthDateYear == null ? service.findAllPaged(pageRequest)
+				: service.findByYearOfBirthDate(birthDateYear, pageRequest);
+		return list.map(body -> ResponseEntity.ok().body(body));
+	}
+
+	@GetMapping(value = "/find-by-birth-date-after")
+	public Mono<ResponseEntity<Page<ClientDTO>>> findByBirthDateYearAfter(
+			@RequestParam(value = "page", defaultValue = "0") Integer page,
+			@RequestParam(value = "linesPerPage", defaultValue = "12") Integer linesPerPage,
+			@RequestParam(value = "direction", defaultValue = "ASC") String direction,
+			@RequestParam(value = "orderBy", defaultValue = "name") String orderBy,
+			@RequestParam(value = "year", defaultValue = "") Integer birthDateYear) {
+		PageRequest pageRequest = PageRequest.of(page, linesPerPage, Direction.valueOf(direction), orderBy);
+		Mono<Page<ClientDTO>> list = birthDateYear == null ? service.findAllPaged(pageRequest)
+				: service.findByBirthDateAfter(BirthYears.startOf(birthDateYear), pageRequest);
+		return list.map(body -> ResponseEntity.ok().body(body));
+	}
+
+	@GetMapping(value = "/{id}")
+	public Mono<ResponseEntity<ClientDTO>> findById(@PathVariable Long id) {
+		return service.findById(id).map(dto -> ResponseEntity.ok().body(dto));
+	}
+
+	@PostMapping
+	public Mono<ResponseEntity<ClientDTO>> insert(@RequestBody ClientDTO dto, UriComponentsBuilder uriBuilder) {
+		return service.insert(dto).map(created -> {
+			URI uri = uriBuilder.path("/clients/{id}").buildAndExpand(created.getId()).toUri();
+			return ResponseEntity.created(uri).body(created);
+		});
+	}
+
+	@PutMapping(value = "/{id}")
+	public Mono<ResponseEntity<ClientDTO>> update(@PathVariable Long id, @RequestBody ClientDTO dto) {
+		return service.update(id, dto).map(updated -> ResponseEntity.ok().body(updated));
+	}
+
+	@DeleteMapping(value = "/{id}")
+	public Mono<ResponseEntity<ClientDTO>> delete(@PathVariable Long id) {
+		return service.delete(id).then(Mono.just(ResponseEntity.noContent().build()));
+	}
+
+}
@@ -0,0 +1,78 @@
+package com.iftm.client.reactive;
+
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.services.ClientService;
+import com.iftm.client.services.exceptions.ResourceNotFoundException;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/*
+ * Versão não bloqueante de ClientService. Não passa pelo cache Caffeine nem
+ * pelo índice de nomes, que são alimentados pelas escritas do stack JPA.
+ */
+@Service
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveClientService {
+
+	@Autowired
+	private ReactiveClientRepository repository;
+
+	public Flux<ClientDTO> findAll() {
+		return repository.findAll();
+	}
+
+	public Mono<Page<ClientDTO>> findAllPaged(PageRequest pageRequest) {
+		return repository.findAll(pageRequest);
+	}
+
+	public Mono<Page<ClientDTO>> findByIncome(Double income, PageRequest pageRequest) {
+		return repository.findByIncome(income, pageRequest);
+	}
+
+	public Mono<Page<ClientDTO>> findByName(String name, PageRequest pageRequest) {
+		return repository.findByName(name, pageRequest);
+	}
+
+	public Mono<Page<ClientDTO>> findByYearOfBirthDate(Integer birthDateYear, PageRequest pageRequest) {
+		return repository.findByYearOfBirthDate(birthDateYear, pageRequest);
+	}
+
+	public Mono<Page<ClientDTO>> findByBirthDateAfter(Instant birthDate, PageRequest pageRequest) {
+		return repository.findByBirthDateAfter(birthDate, pageRequest);
+	}
+
+	public Mono<ClientDTO> findById(Long id) {
+		return repository.findById(id)
+				.switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Entity not found")));
+	}
+
+	public Mono<ClientDTO> insert(ClientDTO dto) {
+		return Mono.fromCallable(() -> ClientService.normalizeForWrite(dto)).flatMap(repository::insert);
+	}
+
+	/* Relê a linha depois do UPDATE para devolver a versão incrementada. */
+	public Mono<ClientDTO> update(Long id, ClientDTO dto) {
+		return Mono.fromCallable(() -> ClientService.normalizeForWrite(dto))
+				.flatMap(normalized -> repository.update(id, normalized))
+				.flatMap(rows -> rows == 0
+						? Mono.error(new ResourceNotFoundException("Id not found " + id))
+						: repository.findById(id));
+	}
+
+	public Mono<Void> delete(Long id) {
+		return repository.deleteById(id).flatMap(rows -> rows == 0
+				? Mono.error(new ResourceNotFoundException("Id not found " + id))
+				: Mono.empty());
+	}
+
+}
@@ -0,0 +1,27 @@
+package com.iftm.client.reactive;
+
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/*
+ * Com um ConnectionFactory R2DBC no contexto o Spring Boot deixa de criar o
+ * DataSource JDBC, e junto com ele o JPA e o Flyway. Os dois continuam
+ * responsáveis pelo schema, pela carga inicial e pelo índice de nomes, então o
+ * pool é declarado aqui com as mesmas propriedades spring.datasource.*.
+ */
+@Configuration
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReactiveDataSourceConfig {
+
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource dataSource(DataSourceProperties properties) {
+		return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+	}
+
+}
@@ -0,0 +1,115 @@
+package com.iftm.client.tests.benchmarks;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.iftm.client.DsclientApplication;
+import com.iftm.client.services.ClientNameIndex;
+
+/*
+ * Sobe a aplicação sem servidor web contra um H2 em memória exclusivo do
+ * benchmark e popula tb_client com a quantidade de linhas pedida.
+ */
+public final class BenchmarkContext {
+
+	public static final String[] FIRST_NAMES = { "Conceição", "Lázaro", "Clarice", "Carolina", "Gilberto", "Djamila",
+			"José", "Toni", "Yuval", "Chimamanda", "Silvio", "Jorge", "Ana", "João", "Maria", "Antônio" };
+	public static final String[] LAST_NAMES = { "Evaristo", "Ramos", "Lispector", "de Jesus", "Gil", "Ribeiro",
+			"Saramago", "Morrison", "Harari", "Adichie", "Almeida", "Amado", "Silva", "Souza", "Gonçalves" };
+
+	private static final int SEED_BATCH_SIZE = 5000;
+
+	private BenchmarkContext() {
+	}
+
+	public static ConfigurableApplicationContext start(int rows, String... extraProperties) {
+		return start(WebApplicationType.NONE, rows, extraProperties);
+	}
+
+	/* Igual a start, mas com o Tomcat embutido numa porta livre (local.server.port). */
+	public static ConfigurableApplicationContext startServer(int rows, String... extraProperties) {
+		List<String> properties = new ArrayList<>(List.of(extraProperties));
+		properties.add("server.port=0");
+		return start(WebApplicationType.SERVLET, rows, properties.toArray(new String[0]));
+	}
+
+	private static ConfigurableApplicationContext start(WebApplicationType webApplicationType, int rows,
+			String... extraProperties) {
+		List<String> args = new ArrayList<>(List.of(
+				"--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+				"--spring.jpa.show-sql=false",
+				"--spring.h2.console.enabled=false",
+				"--client.cache.enabled=false",
+				"--logging.level.root=WARN"));
+		for (String property : extraProperties) {
+			args.add("--" + property);
+		}
+		SpringApplication application = new SpringApplication(DsclientApplication.class);
+		application.setWebApplicationType(webApplicationType);
+		ConfigurableApplicationContext context = application.run(args.toArray(new String[0]));
+		seed(context.getBean(JdbcTemplate.class), rows);
+		context.getBean(ClientNameIndex.class).rebuild();
+		return context;
+	}
+
+	/*
+	 * CPF válido (com os dois dígitos verificadores) a partir de um número de
+	 * sequência. A base começa em 900000000, longe dos CPFs da carga (o próprio
+	 * id com 11 dígitos), para cada inserção do benchmark passar por uk_client_cpf.
+	 */
+	public static String cpf(long sequence) {
+		String base = String.format("%09d", 900_000_000L + sequence % 100_000_000L);
+		String withFirst = base + checkDigit(base);
+		return withFirst + checkDigit(withFirst);
+	}
+
+	private static int checkDigit(String digits) {
+		int sum = 0;
+		for (int i = 0; i < digits.length(); i++) {
+			sum += (digits.charAt(i) - '0') * (digits.length() + 1 - i);
+		}
+		int rest = sum % 11;
+		return rest < 2 ? 0 : 11 - rest;
+	}
+
+	private static void seed(JdbcTemplate jdbcTemplate, int rows) {
+		Long existing = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM tb_client", Long.class);
+		Random random = new Random(42);
+		List<Object[]> batch = new ArrayList<>(SEED_BATCH_SIZE);
+		for (long id = existing + 1; id <= rows; id++) {
+			String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+					+ LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+			LocalDate birthDate = LocalDate.of(1930 + random.nextInt(80), 1 + random.nextInt(12),
+					1 + random.nextInt(28));
+			batch.add(new Object[] { id, name, String.format("%011d", id), 1000.0 + random.nextInt(19000),
+					Timestamp.from(birthDate.atStartOfDay(ZoneOffset.UTC).toInstant()), random.nextInt(5) });
+			if (batch.size() == SEED_BATCH_SIZE) {
+				insert(jdbcTemplate, batch);
+			}
+		}
+		insert(jdbcTemplate, batch);
+		Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM tb_client", Long.class);
+		jdbcTemplate.execute("ALTER SEQUENCE tb_client_seq RESTART WITH " + (max + 1));
+		jdbcTemplate.execute("ANALYZE");
+	}
+
+	private static void insert(JdbcTemplate jdbcTemplate, List<Object[]> batch) {
+		if (batch.isEmpty()) {
+			return;
+		}
+		jdbcTemplate.batchUpdate(
+				"INSERT INTO tb_client (id, name, cpf, income, birth_date, children) VALUES (?, ?, ?, ?, ?, ?)",
+				batch);
+		batch.clear();
+	}
+
+}
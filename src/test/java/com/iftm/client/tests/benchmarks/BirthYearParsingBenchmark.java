@@ -0,0 +1,74 @@
+package com.iftm.client.tests.benchmarks;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.iftm.client.repositories.BirthYears;
+
+/*
+ * Conversão do parâmetro year de /find-by-birth-date-after em Instant: o
+ * caminho antigo (concatenação + SimpleDateFormat novo a cada requisição, no
+ * fuso da JVM), o cálculo com java.time e a consulta à tabela de BirthYears.
+ * Não sobe o contexto; rows só existe porque o profile passa -p rows= a todos
+ * os benchmarks. Rodar com o profiler gc para ver a alocação por chamada.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BirthYearParsingBenchmark {
+
+	private static final String[] YEARS = new String[80];
+
+	static {
+		for (int i = 0; i < YEARS.length; i++) {
+			YEARS[i] = String.valueOf(1930 + i);
+		}
+	}
+
+	@Param("10000")
+	public int rows;
+
+	private int next;
+
+	@Benchmark
+	public Instant simpleDateFormat() throws ParseException {
+		String bD1 = "01/01/" + nextYear();
+		Date date = new SimpleDateFormat("dd/MM/yyyy").parse(bD1);
+		return date.toInstant();
+	}
+
+	@Benchmark
+	public Instant localDate() {
+		return LocalDate.of(Integer.parseInt(nextYear()), 1, 1).atStartOfDay(ZoneOffset.UTC).toInstant();
+	}
+
+	@Benchmark
+	public Instant boundaryTable() {
+		return BirthYears.startOf(Integer.parseInt(nextYear()));
+	}
+
+	private String nextYear() {
+		next = next + 1 == YEARS.length ? 0 : next + 1;
+		return YEARS[next];
+	}
+
+}
@@ -0,0 +1,81 @@
+package com.iftm.client.tests.benchmarks;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/*
+ * Antes/depois da troca de year(birth_date) = ? pelo intervalo semiaberto
+ * indexado, medido direto no JDBC (página + contagem, como o Page faz). O ano
+ * é sorteado a cada chamada para o H2 não reaproveitar o resultado anterior.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BirthYearQueryBenchmark {
+
+	@Param({ "10000", "100000", "1000000" })
+	public int rows;
+
+	private ConfigurableApplicationContext context;
+	private JdbcTemplate jdbcTemplate;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = BenchmarkContext.start(rows);
+		jdbcTemplate = context.getBean(JdbcTemplate.class);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public Long yearFunction() {
+		int year = randomYear();
+		List<Map<String, Object>> page = jdbcTemplate.queryForList(
+				"SELECT * FROM tb_client WHERE year(birth_date) = ? ORDER BY name LIMIT 12", year);
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_client WHERE year(birth_date) = ?", Long.class,
+				year) + page.size();
+	}
+
+	@Benchmark
+	public Long halfOpenRange() {
+		int year = randomYear();
+		Timestamp start = Timestamp.from(LocalDate.of(year, 1, 1).atStartOfDay(ZoneOffset.UTC).toInstant());
+		Timestamp end = Timestamp.from(LocalDate.of(year + 1, 1, 1).atStartOfDay(ZoneOffset.UTC).toInstant());
+		List<Map<String, Object>> page = jdbcTemplate.queryForList(
+				"SELECT * FROM tb_client WHERE birth_date >= ? AND birth_date < ? ORDER BY name LIMIT 12", start, end);
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_client WHERE birth_date >= ? AND birth_date < ?",
+				Long.class, start, end) + page.size();
+	}
+
+	private int randomYear() {
+		return 1930 + ThreadLocalRandom.current().nextInt(80);
+	}
+
+}
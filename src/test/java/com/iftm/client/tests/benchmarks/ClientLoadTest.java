@@ -0,0 +1,132 @@
+package com.iftm.client.tests.benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+/*
+ * Teste de carga fechado (cada cliente só dispara a próxima requisição quando
+ * recebe a anterior) em /clients/{id} e /clients, com o Tomcat em threads de
+ * plataforma (configuração atual) e depois em virtual threads. Precisa de JDK
+ * 21+ para o modo virtual:
+ *
+ * mvn -Pvirtual-threads verify -DskipTests -Dloadtest.concurrency=400 -Dloadtest.seconds=30
+ *
+ * argumentos: linhas concorrência segundos
+ */
+public class ClientLoadTest {
+
+	private static final int WARMUP_SECONDS = 5;
+	private static final String QUIET = "client.metrics.slow-query-threshold=1h";
+
+	public static void main(String[] args) throws Exception {
+		int rows = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+		int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 400;
+		int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+
+		System.out.printf("%-9s %-14s %10s %8s %10s %9s %9s%n", "threads", "endpoint", "requests", "errors",
+				"req/s", "p50 ms", "p99 ms");
+		run("platform", rows, concurrency, seconds, QUIET);
+		run("virtual", rows, concurrency, seconds, QUIET, "spring.profiles.active=test,virtual");
+	}
+
+	private static void run(String mode, int rows, int concurrency, int seconds, String... properties)
+			throws Exception {
+		ConfigurableApplicationContext context = BenchmarkContext.startServer(rows, properties);
+		try {
+			String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+			Supplier<String> byId = () -> base + "/clients/" + (1 + ThreadLocalRandom.current().nextInt(rows));
+			Supplier<String> paged = () -> base + "/clients?page=" + ThreadLocalRandom.current().nextInt(100);
+			measure(byId, concurrency, WARMUP_SECONDS);
+			print(mode, "/clients/{id}", measure(byId, concurrency, seconds), seconds);
+			measure(paged, concurrency, WARMUP_SECONDS);
+			print(mode, "/clients", measure(paged, concurrency, seconds), seconds);
+		} finally {
+			context.close();
+		}
+	}
+
+	private static Result measure(Supplier<String> uris, int concurrency, int seconds) throws Exception {
+		HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(10)).build();
+		long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+		ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+		List<Future<Result>> futures = new ArrayList<>(concurrency);
+		for (int i = 0; i < concurrency; i++) {
+			futures.add(workers.submit(() -> {
+				Result result = new Result();
+				while (System.nanoTime() < deadline) {
+					HttpRequest request = HttpRequest.newBuilder(URI.create(uris.get()))
+							.header("Accept", "application/json").timeout(Duration.ofSeconds(30)).build();
+					long start = System.nanoTime();
+					try {
+						HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+						result.add(System.nanoTime() - start, response.statusCode() != 200);
+					} catch (Exception e) {
+						result.add(System.nanoTime() - start, true);
+					}
+				}
+				return result;
+			}));
+		}
+		Result total = new Result();
+		for (Future<Result> future : futures) {
+			total.merge(future.get());
+		}
+		workers.shutdown();
+		return total;
+	}
+
+	private static void print(String mode, String endpoint, Result result, int seconds) {
+		long[] latencies = Arrays.copyOf(result.latencies, result.count);
+		Arrays.sort(latencies);
+		System.out.printf("%-9s %-14s %10d %8d %10.1f %9.2f %9.2f%n", mode, endpoint, result.count, result.errors,
+				(double) result.count / seconds, percentile(latencies, 0.50), percentile(latencies, 0.99));
+	}
+
+	private static double percentile(long[] sorted, double percentile) {
+		if (sorted.length == 0) {
+			return Double.NaN;
+		}
+		int index = (int) Math.ceil(percentile * sorted.length) - 1;
+		return sorted[Math.max(index, 0)] / 1_000_000.0;
+	}
+
+	private static class Result {
+
+		private long[] latencies = new long[1024];
+		private int count;
+		private int errors;
+
+		void add(long latency, boolean error) {
+			if (count == latencies.length) {
+				latencies = Arrays.copyOf(latencies, count * 2);
+			}
+			latencies[count++] = latency;
+			if (error) {
+				errors++;
+			}
+		}
+
+		void merge(Result other) {
+			for (int i = 0; i < other.count; i++) {
+				add(other.latencies[i], false);
+			}
+			errors += other.errors;
+		}
+
+	}
+
+}
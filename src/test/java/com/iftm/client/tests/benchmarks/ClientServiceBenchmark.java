@@ -0,0 +1,109 @@
+package com.iftm.client.tests.benchmarks;
+
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort.Direction;
+
+import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.entities.Client;
+import com.iftm.client.services.ClientService;
+
+/*
+ * Caminhos quentes do ClientService com cache desligado. Os filtros são
+ * sorteados a cada chamada para o H2 não reaproveitar resultados.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClientServiceBenchmark {
+
+	@Param({ "10000", "100000", "1000000" })
+	public int rows;
+
+	/* Cada insert precisa de um CPF novo por causa de uk_client_cpf. */
+	private final AtomicLong cpf = new AtomicLong();
+
+	private ConfigurableApplicationContext context;
+	private ClientService service;
+	private Client entity;
+
+	/* O índice de nomes é opt-in (só uma instância); findByName mede com ele ligado. */
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = BenchmarkContext.start(rows, "client.name-index.enabled=true");
+		service = context.getBean(ClientService.class);
+		entity = new Client(1L, "Conceição Evaristo", "10619244881", 1500.0, Instant.parse("2020-07-13T20:50:00Z"), 2);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public ClientDTO findById() {
+		return service.findById(1L + ThreadLocalRandom.current().nextLong(rows));
+	}
+
+	@Benchmark
+	public Page<ClientDTO> findAllPaged() {
+		return service.findAllPaged(PageRequest.of(randomPage(), 12, Direction.ASC, "name"));
+	}
+
+	@Benchmark
+	public Page<ClientDTO> findByName() {
+		String name = BenchmarkContext.LAST_NAMES[ThreadLocalRandom.current().nextInt(BenchmarkContext.LAST_NAMES.length)];
+		return service.findByName(name, PageRequest.of(0, 12, Direction.ASC, "name"));
+	}
+
+	@Benchmark
+	public Page<ClientDTO> findByIncome() {
+		double income = 1000.0 + ThreadLocalRandom.current().nextInt(19000);
+		return service.findByIncome(income, PageRequest.of(0, 12, Direction.ASC, "name"));
+	}
+
+	@Benchmark
+	public Page<ClientDTO> findByYearOfBirthDate() {
+		int year = 1930 + ThreadLocalRandom.current().nextInt(80);
+		return service.findByYearOfBirthDate(year, PageRequest.of(0, 12, Direction.ASC, "name"));
+	}
+
+	@Benchmark
+	public ClientDTO insert() {
+		ClientDTO dto = new ClientDTO(null, "Benchmark Insert", BenchmarkContext.cpf(cpf.incrementAndGet()), 2500.0,
+				Instant.parse("1980-01-01T00:00:00Z"), 1);
+		return service.insert(dto);
+	}
+
+	@Benchmark
+	public ClientDTO dtoMapping() {
+		return new ClientDTO(entity);
+	}
+
+	private int randomPage() {
+		return ThreadLocalRandom.current().nextInt(Math.max(1, rows / 12));
+	}
+
+}
@@ -0,0 +1,86 @@
+package com.iftm.client.tests.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/*
+ * SQL que o Hibernate gerava para findByIncome com DISTINCT (página + count
+ * distinct) contra a consulta sem DISTINCT, com o limite de renda sorteado
+ * entre 1000 e 2000 para que ~95% da tabela case com o filtro.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IncomeQueryBenchmark {
+
+	@Param({ "10000", "100000" })
+	public int rows;
+
+	private ConfigurableApplicationContext context;
+	private JdbcTemplate jdbcTemplate;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = BenchmarkContext.start(rows);
+		jdbcTemplate = context.getBean(JdbcTemplate.class);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public Long distinct() {
+		double income = randomIncome();
+		List<Map<String, Object>> page = jdbcTemplate.queryForList(
+				"SELECT DISTINCT * FROM tb_client WHERE income >= ? ORDER BY name LIMIT 12", income);
+		return jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT id) FROM tb_client WHERE income >= ?", Long.class,
+				income) + page.size();
+	}
+
+	@Benchmark
+	public Long plain() {
+		double income = randomIncome();
+		List<Map<String, Object>> page = jdbcTemplate.queryForList(
+				"SELECT * FROM tb_client WHERE income >= ? ORDER BY name LIMIT 12", income);
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_client WHERE income >= ?", Long.class, income)
+				+ page.size();
+	}
+
+	/* O SQL de /clients/find-by-income?orderBy=income (sem desempate por id). */
+	@Benchmark
+	public Long plainOrderedByIncome() {
+		double income = randomIncome();
+		List<Map<String, Object>> page = jdbcTemplate.queryForList(
+				"SELECT * FROM tb_client WHERE income >= ? ORDER BY income LIMIT 12", income);
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_client WHERE income >= ?", Long.class, income)
+				+ page.size();
+	}
+
+	private double randomIncome() {
+		return 1000 + ThreadLocalRandom.current().nextInt(1000);
+	}
+
+}
@@ -0,0 +1,83 @@
+package com.iftm.client.tests.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.repositories.ClientRepository;
+
+/*
+ * Leitura paginada carregando entidades gerenciadas e convertendo para DTO
+ * contra a projeção direta em ClientDTO, ambas numa transação somente
+ * leitura. Rodar com o profiler gc (padrão do profile benchmark) para
+ * comparar gc.alloc.rate.norm por operação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectionBenchmark {
+
+	@Param("100000")
+	public int rows;
+
+	@Param({ "12", "100", "1000" })
+	public int pageSize;
+
+	private ConfigurableApplicationContext context;
+	private ClientRepository repository;
+	private TransactionTemplate readOnly;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = BenchmarkContext.start(rows);
+		repository = context.getBean(ClientRepository.class);
+		readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+		readOnly.setReadOnly(true);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public Page<ClientDTO> managedEntities() {
+		PageRequest pageRequest = randomPage();
+		return readOnly.execute(status -> repository.findAll(pageRequest).map(ClientDTO::new));
+	}
+
+	@Benchmark
+	public Page<ClientDTO> dtoProjection() {
+		PageRequest pageRequest = randomPage();
+		return readOnly.execute(status -> repository.findAllDTO(pageRequest));
+	}
+
+	private PageRequest randomPage() {
+		int pages = Math.max(1, rows / pageSize);
+		return PageRequest.of(ThreadLocalRandom.current().nextInt(pages), pageSize, Direction.ASC, "id");
+	}
+
+}
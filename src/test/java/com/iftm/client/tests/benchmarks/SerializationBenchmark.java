@@ -0,0 +1,120 @@
+package com.iftm.client.tests.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.repositories.ClientRepository;
+
+/*
+ * Custo de serializar uma página de ClientDTO (o mesmo Page que o
+ * ClientResource devolve) em cada formato negociável, com e sem o gzip que o
+ * Tomcat aplica acima de server.compression.min-response-size. Os mappers são
+ * os dos conversores registrados no contexto. O tamanho em bytes de cada
+ * combinação é impresso no início do trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+	@Param("10000")
+	public int rows;
+
+	@Param({ "12", "100", "1000" })
+	public int pageSize;
+
+	@Param({ "json", "smile", "cbor" })
+	public String format;
+
+	@Param({ "false", "true" })
+	public boolean gzip;
+
+	private ObjectWriter writer;
+	private Page<ClientDTO> page;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		ConfigurableApplicationContext context = BenchmarkContext.start(rows);
+		try {
+			ClientRepository repository = context.getBean(ClientRepository.class);
+			TransactionTemplate readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+			readOnly.setReadOnly(true);
+			page = readOnly.execute(status -> repository.findAllDTO(PageRequest.of(0, pageSize, Direction.ASC, "name")));
+			writer = converter(context.getBean(HttpMessageConverters.class)).getObjectMapper().writer();
+		} finally {
+			context.close();
+		}
+		System.out.printf("%n%s gzip=%s pageSize=%d: %d bytes%n", format, gzip, pageSize, serialize().length);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		page = null;
+	}
+
+	@Benchmark
+	public byte[] serialize() throws IOException {
+		if (!gzip) {
+			return writer.writeValueAsBytes(page);
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+			writer.writeValue(out, page);
+		}
+		return bytes.toByteArray();
+	}
+
+	private AbstractJackson2HttpMessageConverter converter(HttpMessageConverters converters) {
+		Class<?> type;
+		switch (format) {
+		case "smile":
+			type = MappingJackson2SmileHttpMessageConverter.class;
+			break;
+		case "cbor":
+			type = MappingJackson2CborHttpMessageConverter.class;
+			break;
+		default:
+			type = MappingJackson2HttpMessageConverter.class;
+		}
+		for (HttpMessageConverter<?> converter : converters.getConverters()) {
+			if (type.isInstance(converter)) {
+				return (AbstractJackson2HttpMessageConverter) converter;
+			}
+		}
+		throw new IllegalStateException("No " + type.getSimpleName() + " registered");
+	}
+
+}
@@ -0,0 +1,96 @@
+package com.iftm.client.tests.benchmarks;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.dto.WriteStatusDTO;
+import com.iftm.client.services.ClientService;
+import com.iftm.client.services.ClientWriteBehindService;
+import com.iftm.client.services.exceptions.WriteQueueFullException;
+
+/*
+ * Vazão de inserções com 8 escritores concorrentes: commit por requisição
+ * (ClientService.insert) contra a fila write-behind. A fila é pequena para que,
+ * depois de encher, o número medido seja a vazão sustentada de escoamento e
+ * não só o custo de enfileirar; com a fila cheia o escritor tenta de novo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class WriteBehindBenchmark {
+
+	@Param("10000")
+	public int rows;
+
+	private final AtomicLong cpf = new AtomicLong();
+
+	private ConfigurableApplicationContext context;
+	private ClientService service;
+	private ClientWriteBehindService writeBehind;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = BenchmarkContext.start(rows, "client.write-behind.enabled=true", "client.write-behind.capacity=1000",
+				"client.metrics.slow-query-threshold=1h");
+		service = context.getBean(ClientService.class);
+		writeBehind = context.getBean(ClientWriteBehindService.class);
+	}
+
+	/* Não deixa pedidos de uma iteração serem gravados durante a seguinte. */
+	@TearDown(Level.Iteration)
+	public void drain() throws InterruptedException {
+		while (writeBehind.queueStatus().getPending() > 0) {
+			Thread.sleep(10);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public ClientDTO synchronousInsert() {
+		return service.insert(newClient());
+	}
+
+	@Benchmark
+	public WriteStatusDTO writeBehindInsert() {
+		ClientDTO dto = newClient();
+		while (true) {
+			try {
+				return writeBehind.submitInsert(dto);
+			} catch (WriteQueueFullException e) {
+				// contrapressão: espera a fila escoar
+			}
+		}
+	}
+
+	private ClientDTO newClient() {
+		return new ClientDTO(null, "Conceição Evaristo", BenchmarkContext.cpf(cpf.incrementAndGet()), 1500.0,
+				Instant.parse("2020-07-13T20:50:00Z"), 2);
+	}
+
+}
@@ -13,6 +13,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.iftm.client.dto.ClientDTO;
 import com.iftm.client.services.ClientService;
+import com.iftm.client.services.exceptions.PreconditionFailedException;
 import com.iftm.client.services.exceptions.ResourceNotFoundException;
 
 @SpringBootTest
@@ -67,6 +68,16 @@ public class ClientServiceIT {
 
 	}
 
+	@Test
+	public void findByNameShouldIgnoreAccentsWhenNameIndexIsEnabled() {
+
+		Page<ClientDTO> result = service.findByName("conceicao", pageRequest);
+
+		Assertions.assertEquals(1L, result.getTotalElements());
+		Assertions.assertEquals("Conceição Evaristo", result.getContent().get(0).getName());
+
+	}
+
 	@Test
 	public void findAllShouldReturnAllClients() {
 		List<ClientDTO> result = service.findAll();
@@ -75,4 +86,29 @@ public class ClientServiceIT {
 
 	}
 
+	@Test
+	public void updateShouldIncrementVersionWhenExpectedVersionMatches() {
+
+		ClientDTO dto = service.findById(existingId);
+		dto.setName("Nome Atualizado");
+
+		ClientDTO result = service.update(existingId, dto, dto.getVersion());
+
+		Assertions.assertEquals(dto.getVersion() + 1, result.getVersion());
+
+	}
+
+	@Test
+	public void updateShouldThrowPreconditionFailedExceptionWhenVersionIsStale() {
+
+		ClientDTO dto = service.findById(existingId);
+		dto.setName("Nome Atualizado");
+		service.update(existingId, dto, dto.getVersion());
+
+		Assertions.assertThrows(PreconditionFailedException.class, () -> {
+			service.update(existingId, dto, dto.getVersion());
+		});
+
+	}
+
 }
@@ -0,0 +1,69 @@
+package com.iftm.client.tests.integration;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.iftm.client.services.ClientService;
+import com.iftm.client.tests.factory.ClientFactory;
+
+@SpringBootTest(properties = { "client.cache.enabled=false", "client.datasource.routing.primary-after-write=1m" })
+@ActiveProfiles({ "test", "replica" })
+public class ClientServiceRoutingAfterWriteTests {
+
+	private static final long LAGGING_ID = 900_001L;
+
+	@Autowired
+	private ClientService service;
+
+	@Autowired
+	private Environment environment;
+
+	private DataSource primary;
+	private DataSource replica;
+	private Long insertedId;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		primary = new DriverManagerDataSource(environment.getProperty("client.datasource.primary.jdbc-url"), "sa", "");
+		replica = new DriverManagerDataSource(environment.getProperty("client.datasource.replica.jdbc-url"), "sa", "");
+		insertedId = null;
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		if (insertedId != null) {
+			execute(primary, "DELETE FROM tb_client WHERE id = ?", insertedId);
+		}
+		execute(primary, "DELETE FROM tb_client WHERE id = ?", LAGGING_ID);
+		execute(replica, "DELETE FROM tb_client WHERE id = ?", LAGGING_ID);
+	}
+
+	@Test
+	public void readAfterWriteShouldGoToPrimaryWhileReplicaLags() {
+
+		execute(primary, "INSERT INTO tb_client (id, name, cpf, income, children) VALUES (?, ?, ?, ?, ?)",
+				LAGGING_ID, "Nome novo", "99988877765", 1000.0, 0);
+		execute(replica, "INSERT INTO tb_client (id, name, cpf, income, children) VALUES (?, ?, ?, ?, ?)",
+				LAGGING_ID, "Nome antigo", "99988877765", 1000.0, 0);
+
+		insertedId = service.insert(ClientFactory.createClientDTO(null)).getId();
+
+		Assertions.assertEquals("Nome novo", service.findById(LAGGING_ID).getName());
+	}
+
+	/* Conexões diretas, fora dos pools, para ver cada banco isoladamente. */
+	private static void execute(DataSource dataSource, String sql, Object... args) {
+		new JdbcTemplate(dataSource).update(sql, args);
+	}
+
+}
@@ -0,0 +1,82 @@
+package com.iftm.client.tests.integration;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.services.ClientService;
+import com.iftm.client.tests.factory.ClientFactory;
+
+@SpringBootTest(properties = { "client.cache.enabled=false", "client.datasource.routing.primary-after-write=0s" })
+@ActiveProfiles({ "test", "replica" })
+public class ClientServiceRoutingTests {
+
+	private static final long REPLICA_ONLY_ID = 900_000L;
+
+	@Autowired
+	private ClientService service;
+
+	@Autowired
+	private Environment environment;
+
+	private DataSource primary;
+	private DataSource replica;
+	private Long insertedId;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		primary = new DriverManagerDataSource(environment.getProperty("client.datasource.primary.jdbc-url"), "sa", "");
+		replica = new DriverManagerDataSource(environment.getProperty("client.datasource.replica.jdbc-url"), "sa", "");
+		insertedId = null;
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		if (insertedId != null) {
+			execute(primary, "DELETE FROM tb_client WHERE id = ?", insertedId);
+		}
+		execute(replica, "DELETE FROM tb_client WHERE id = ?", REPLICA_ONLY_ID);
+	}
+
+	@Test
+	public void insertShouldWriteToPrimaryOnly() {
+
+		insertedId = service.insert(ClientFactory.createClientDTO(null)).getId();
+
+		Assertions.assertEquals(1, count(primary, insertedId));
+		Assertions.assertEquals(0, count(replica, insertedId));
+	}
+
+	@Test
+	public void findByIdShouldReadFromReplica() {
+
+		execute(replica, "INSERT INTO tb_client (id, name, cpf, income, children) VALUES (?, ?, ?, ?, ?)",
+				REPLICA_ONLY_ID, "Somente na réplica", "99988877766", 1000.0, 0);
+
+		ClientDTO result = service.findById(REPLICA_ONLY_ID);
+
+		Assertions.assertEquals("Somente na réplica", result.getName());
+		Assertions.assertEquals(0, count(primary, REPLICA_ONLY_ID));
+	}
+
+	/* Conexões diretas, fora dos pools, para ver cada banco isoladamente. */
+	private static void execute(DataSource dataSource, String sql, Object... args) {
+		new JdbcTemplate(dataSource).update(sql, args);
+	}
+
+	private static int count(DataSource dataSource, Long id) {
+		return new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM tb_client WHERE id = ?",
+				Integer.class, id);
+	}
+
+}
@@ -0,0 +1,125 @@
+package com.iftm.client.tests.integration;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.metrics.SqlStatistics;
+import com.iftm.client.services.ClientService;
+import com.iftm.client.services.exceptions.DatabaseException;
+import com.iftm.client.services.exceptions.PreconditionFailedException;
+import com.iftm.client.services.exceptions.ResourceNotFoundException;
+import com.iftm.client.tests.factory.ClientFactory;
+
+/*
+ * Quantos comandos cada operação do ClientService emite. Sem @Transactional
+ * no teste, para cada chamada fazer o próprio commit (e flush) dentro da
+ * medição; o cliente criado no setUp é apagado no fim.
+ */
+@SpringBootTest(properties = "client.cache.enabled=false")
+public class ClientServiceSqlStatementsTests {
+
+	@Autowired
+	private ClientService service;
+
+	private Long createdId;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		createdId = service.insert(ClientFactory.createClientDTO(null)).getId();
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		try {
+			service.delete(createdId);
+		} catch (ResourceNotFoundException e) {
+			// o próprio teste já apagou
+		}
+	}
+
+	@Test
+	public void findByIdShouldIssueOneSelectWithoutLoadingEntities() {
+
+		SqlStatistics statistics = SqlAssertions.measure(() -> service.findById(createdId));
+
+		Assertions.assertEquals(1, statistics.getSelects());
+		Assertions.assertEquals(0, statistics.getEntitiesLoaded());
+	}
+
+	@Test
+	public void insertShouldIssueAtMostThreeStatements() {
+
+		ClientDTO dto = ClientFactory.createClientDTO(null);
+		dto.setCpf("98765432100");
+
+		// CPF duplicado, próximo valor da sequência e o INSERT
+		ClientDTO created = SqlAssertions.assertMaxStatements(3, () -> service.insert(dto));
+		service.delete(created.getId());
+	}
+
+	@Test
+	public void updateShouldIssueAtMostTwoStatements() {
+
+		ClientDTO dto = ClientFactory.createClientDTO(null);
+		dto.setName("Nome alterado");
+
+		// o UPDATE (com a versão) e o SELECT da resposta
+		SqlStatistics statistics = SqlAssertions.measure(() -> service.update(createdId, dto, 0L));
+
+		Assertions.assertTrue(statistics.getStatements() <= 2, statistics.toString());
+		Assertions.assertEquals(1, statistics.getUpdates());
+		Assertions.assertEquals(0, statistics.getEntitiesLoaded());
+	}
+
+	@Test
+	public void updateShouldThrowPreconditionFailedExceptionWhenVersionIsStale() {
+
+		ClientDTO dto = ClientFactory.createClientDTO(null);
+
+		Assertions.assertThrows(PreconditionFailedException.class, () -> service.update(createdId, dto, 7L));
+	}
+
+	@Test
+	public void updateShouldThrowDatabaseExceptionWhenCpfBelongsToAnotherClient() {
+
+		ClientDTO dto = ClientFactory.createClientDTO(null);
+		dto.setCpf("10619244881");
+
+		DatabaseException exception = Assertions.assertThrows(DatabaseException.class,
+				() -> service.update(createdId, dto, null));
+
+		Assertions.assertEquals("CPF already registered", exception.getMessage());
+	}
+
+	@Test
+	public void patchShouldIssueAtMostTwoStatementsAndKeepOtherFields() {
+
+		ClientDTO before = service.findById(createdId);
+		ClientDTO values = new ClientDTO();
+		values.setChildren(5);
+
+		SqlStatistics statistics = SqlAssertions
+				.measure(() -> service.patch(createdId, values, Set.of("children"), before.getVersion()));
+		ClientDTO after = service.findById(createdId);
+
+		Assertions.assertTrue(statistics.getStatements() <= 2, statistics.toString());
+		Assertions.assertEquals(5, after.getChildren());
+		Assertions.assertEquals(before.getName(), after.getName());
+		Assertions.assertEquals(before.getCpf(), after.getCpf());
+		Assertions.assertEquals(before.getVersion() + 1, after.getVersion());
+	}
+
+	@Test
+	public void deleteShouldIssueOneStatement() {
+
+		SqlAssertions.assertMaxStatements(1, () -> service.delete(createdId));
+	}
+
+}
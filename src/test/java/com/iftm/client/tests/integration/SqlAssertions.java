@@ -0,0 +1,49 @@
+package com.iftm.client.tests.integration;
+
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Assertions;
+
+import com.iftm.client.metrics.SqlStatistics;
+
+/*
+ * Conta os comandos SQL que o Hibernate prepara dentro de uma ação (exige
+ * client.diagnostics.enabled=true). Chamar fora de uma transação de teste,
+ * senão o flush fica para o fim do teste e não entra na conta.
+ */
+public final class SqlAssertions {
+
+	private SqlAssertions() {
+	}
+
+	public static SqlStatistics measure(Runnable action) {
+		SqlStatistics statistics = SqlStatistics.begin();
+		try {
+			action.run();
+		} finally {
+			statistics.end();
+		}
+		return statistics;
+	}
+
+	public static <T> T assertMaxStatements(int max, Supplier<T> action) {
+		SqlStatistics statistics = SqlStatistics.begin();
+		T result;
+		try {
+			result = action.get();
+		} finally {
+			statistics.end();
+		}
+		Assertions.assertTrue(statistics.getStatements() <= max,
+				"Expected at most " + max + " SQL statements but got " + statistics);
+		return result;
+	}
+
+	public static void assertMaxStatements(int max, Runnable action) {
+		assertMaxStatements(max, () -> {
+			action.run();
+			return null;
+		});
+	}
+
+}
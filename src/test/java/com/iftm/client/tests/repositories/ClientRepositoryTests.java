@@ -5,7 +5,12 @@ import java.text.SimpleDateFormat;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,9 +20,17 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort.Direction;
 
+import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.dto.IncomeBucketDTO;
 import com.iftm.client.entities.Client;
+import com.iftm.client.repositories.BirthDateRange;
+import com.iftm.client.repositories.BirthYears;
 import com.iftm.client.repositories.ClientRepository;
+import com.iftm.client.repositories.ClientSpecifications;
+import com.iftm.client.repositories.KeysetCursor;
 import com.iftm.client.tests.factory.ClientFactory;
 
 @DataJpaTest
@@ -64,12 +77,12 @@ public class ClientRepositoryTests {
 	}
 
 	@Test
-	public void findByIcomeShouldReturnClientsWhenClientIncomeIsGreaterThanOrEqualsToValue() {
+	public void findDTOByIncomeShouldReturnClientsWhenClientIncomeIsGreaterThanOrEqualsToValue() {
 
 		PageRequest pageRequest = PageRequest.of(0, 10);
 		Double income = 4000.00;
 
-		Page<Client> result = repository.findByIncome(income, pageRequest);
+		Page<ClientDTO> result = repository.findDTOByIncome(income, pageRequest);
 
 		Assertions.assertFalse(result.isEmpty());
 		Assertions.assertEquals(countClientByIncome, result.getTotalElements());
@@ -77,11 +90,11 @@ public class ClientRepositoryTests {
 	}
 
 	@Test
-	public void findByNameShouldReturnClientsWhenNameExists() {
+	public void findDTOByNameShouldReturnClientsWhenNameExists() {
 
 		PageRequest pageRequest = PageRequest.of(0, 10);
 
-		Page<Client> result = repository.findByNameContainingIgnoreCase(existingName, pageRequest);
+		Page<ClientDTO> result = repository.findDTOByName(existingName, pageRequest);
 
 		Assertions.assertFalse(result.isEmpty());
 		Assertions.assertEquals(existingName, result.getContent().get(0).getName());
@@ -89,13 +102,13 @@ public class ClientRepositoryTests {
 	}
 
 	@Test
-	public void findByNameShouldReturnClientsWhenNameExistsIgnoringCase() {
+	public void findDTOByNameShouldReturnClientsWhenNameExistsIgnoringCase() {
 
 		PageRequest pageRequest = PageRequest.of(0, 10);
 
 		String nameIgnoreCase = existingName.toUpperCase();
 
-		Page<Client> result = repository.findByNameContainingIgnoreCase(nameIgnoreCase, pageRequest);
+		Page<ClientDTO> result = repository.findDTOByName(nameIgnoreCase, pageRequest);
 
 		Assertions.assertFalse(result.isEmpty());
 		Assertions.assertEquals(existingName, result.getContent().get(0).getName());
@@ -103,11 +116,11 @@ public class ClientRepositoryTests {
 	}
 
 	@Test
-	public void findByNameShouldReturnAllClientsWhenEmptyName() {
+	public void findDTOByNameShouldReturnAllClientsWhenEmptyName() {
 
 		PageRequest pageRequest = PageRequest.of(0, 10);
 
-		Page<Client> result = repository.findByNameContainingIgnoreCase("", pageRequest);
+		Page<ClientDTO> result = repository.findDTOByName("", pageRequest);
 
 		Assertions.assertFalse(result.isEmpty());
 		Assertions.assertEquals(countTotalClients, result.getTotalElements());
@@ -115,11 +128,11 @@ public class ClientRepositoryTests {
 	}
 
 	@Test
-	public void findByYearOfBirthDateShouldReturnClientsWhenClientsWereBornAtYear() {
+	public void findDTOByYearOfBirthDateShouldReturnClientsWhenClientsWereBornAtYear() {
 
 		PageRequest pageRequest = PageRequest.of(0, 10);
 
-		Page<Client> result = repository.findByYearOfBirthDate(1956, pageRequest);
+		Page<ClientDTO> result = repository.findDTOByYearOfBirthDate(1956, pageRequest);
 
 		Assertions.assertFalse(result.isEmpty());
 		Assertions.assertEquals(countClientBirthAt1956, result.getTotalElements());
@@ -127,7 +140,18 @@ public class ClientRepositoryTests {
 	}
 
 	@Test
-	public void findByBirthDateAfterShouldReturnClientsWhenClientsWereBornAfter() throws ParseException {
+	public void findDTOByYearOfBirthDateShouldReturnEmptyWhenNobodyWasBornAtYear() {
+
+		PageRequest pageRequest = PageRequest.of(0, 10);
+
+		Page<ClientDTO> result = repository.findDTOByYearOfBirthDate(1957, pageRequest);
+
+		Assertions.assertTrue(result.isEmpty());
+
+	}
+
+	@Test
+	public void findDTOByBirthDateAfterShouldReturnClientsWhenClientsWereBornAfter() throws ParseException {
 
 		PageRequest pageRequest = PageRequest.of(0, 10);
 
@@ -135,13 +159,215 @@ public class ClientRepositoryTests {
 		Date date = new SimpleDateFormat("dd/MM/yyyy").parse(bD1);
 		Instant bD2 = date.toInstant();
 
-		Page<Client> result = repository.findByBirthDateAfter(bD2, pageRequest);
+		Page<ClientDTO> result = repository.findDTOByBirthDateAfter(bD2, pageRequest);
 
 		Assertions.assertFalse(result.isEmpty());
 		Assertions.assertEquals(countClientBirthAfter2000, result.getTotalElements());
 
 	}
 
+	@Test
+	public void findDTOByBirthDateBeforeShouldReturnClientsBornBeforeYear() {
+
+		Page<ClientDTO> result = repository.findDTOByBirthDateBefore(BirthYears.startOf(1950), PageRequest.of(0, 10));
+
+		Assertions.assertEquals(3L, result.getTotalElements());
+	}
+
+	@Test
+	public void findDTOByBirthDateFromShouldReturnClientsBornFromInstant() {
+
+		Page<ClientDTO> result = repository.findDTOByBirthDateFrom(BirthYears.endOf(1996), PageRequest.of(0, 10));
+
+		Assertions.assertEquals(1L, result.getTotalElements());
+		Assertions.assertEquals(1L, result.getContent().get(0).getId());
+	}
+
+	@Test
+	public void birthDateInRangeShouldIncludeBothYearsOfBetween() {
+
+		long result = repository.count(ClientSpecifications.birthDateInRange(BirthDateRange.between("1956", "1960")));
+
+		Assertions.assertEquals(3L, result);
+	}
+
+	@Test
+	public void findPageShouldCombineAllFiltersInOneQuery() {
+
+		PageRequest pageRequest = PageRequest.of(0, 2, Direction.ASC, "name");
+
+		Page<ClientDTO> result = repository.findPage(ClientSpecifications.incomeInRange(2000.0, 5000.0)
+				.and(ClientSpecifications.birthDateInRange(BirthDateRange.between("1950", "1999")))
+				.and(ClientSpecifications.childrenEqual(2)), pageRequest);
+
+		Assertions.assertEquals(3L, result.getTotalElements());
+		Assertions.assertEquals(2, result.getNumberOfElements());
+		Assertions.assertEquals("Clarice Lispector", result.getContent().get(0).getName());
+	}
+
+	@Test
+	public void findDTOByNameShouldIgnoreAccentsOnBothSides() {
+
+		PageRequest pageRequest = PageRequest.of(0, 10);
+
+		Page<ClientDTO> unaccented = repository.findDTOByName("CONCEICAO", pageRequest);
+		Page<ClientDTO> accented = repository.findDTOByName("lázaro", pageRequest);
+
+		Assertions.assertEquals(1, unaccented.getTotalElements());
+		Assertions.assertEquals("Conceição Evaristo", unaccented.getContent().get(0).getName());
+		Assertions.assertEquals(1, accented.getTotalElements());
+		Assertions.assertEquals(1L, repository.count(ClientSpecifications.nameContainsIgnoreCase("conceição")));
+		Assertions.assertEquals(1L, repository.count(ClientSpecifications.nameContainsIgnoreCase("ÇÃO")));
+	}
+
+	@Test
+	public void findDTOByNameShouldTreatLikeWildcardsAsLiterals() {
+
+		PageRequest pageRequest = PageRequest.of(0, 10);
+
+		Assertions.assertEquals(0, repository.findDTOByName("%", pageRequest).getTotalElements());
+		Assertions.assertEquals(0, repository.findDTOByName("_", pageRequest).getTotalElements());
+		Assertions.assertEquals(0, repository.findDTOByName("\\", pageRequest).getTotalElements());
+		Assertions.assertEquals(0L, repository.count(ClientSpecifications.nameContainsIgnoreCase("%")));
+		Assertions.assertEquals(0L, repository.count(ClientSpecifications.nameContainsIgnoreCase("c_n")));
+	}
+
+	@Test
+	public void findFieldsPageShouldSelectOnlyGivenFields() {
+
+		PageRequest pageRequest = PageRequest.of(0, 3, Direction.ASC, "name");
+
+		Page<Map<String, Object>> result = repository.findFieldsPage(ClientSpecifications.all(), List.of("id", "name"),
+				pageRequest);
+
+		Assertions.assertEquals(countTotalClients, result.getTotalElements());
+		Assertions.assertEquals(3, result.getNumberOfElements());
+		Assertions.assertEquals(List.of("id", "name"), List.copyOf(result.getContent().get(0).keySet()));
+		Assertions.assertEquals("Carolina Maria de Jesus", result.getContent().get(0).get("name"));
+	}
+
+	@Test
+	public void streamAllDTOShouldReturnAllClientsOrderedById() {
+
+		try (Stream<ClientDTO> result = repository.streamAllDTO()) {
+			Long[] ids = result.map(ClientDTO::getId).toArray(Long[]::new);
+
+			Assertions.assertEquals(countTotalClients, ids.length);
+			for (int i = 1; i < ids.length; i++) {
+				Assertions.assertTrue(ids[i - 1] < ids[i]);
+			}
+		}
+
+	}
+
+	@Test
+	public void findSliceShouldVisitEveryClientOnceWhenFollowingCursor() {
+
+		Set<Long> visited = new HashSet<>();
+		KeysetCursor cursor = null;
+		String previousName = "";
+		Slice<ClientDTO> slice;
+		do {
+			slice = repository.findSlice(ClientSpecifications.all(), "name", Direction.ASC, cursor, 5);
+			for (ClientDTO client : slice) {
+				Assertions.assertTrue(visited.add(client.getId()));
+				Assertions.assertTrue(previousName.compareTo(client.getName()) <= 0);
+				previousName = client.getName();
+			}
+			ClientDTO last = slice.getContent().get(slice.getNumberOfElements() - 1);
+			cursor = KeysetCursor.after(last, "name", Direction.ASC);
+		} while (slice.hasNext());
+
+		Assertions.assertEquals(countTotalClients, visited.size());
+
+	}
+
+	@Test
+	public void findSliceShouldTieBreakByIdWhenOrderValuesRepeat() {
+
+		Slice<ClientDTO> first = repository.findSlice(ClientSpecifications.incomeGreaterThanOrEqual(0.0), "income",
+				Direction.DESC, null, 7);
+		ClientDTO last = first.getContent().get(6);
+		Slice<ClientDTO> second = repository.findSlice(ClientSpecifications.incomeGreaterThanOrEqual(0.0), "income",
+				Direction.DESC, KeysetCursor.after(last, "income", Direction.DESC), 7);
+
+		Assertions.assertTrue(first.hasNext());
+		Assertions.assertFalse(second.hasNext());
+		Assertions.assertEquals(countTotalClients, first.getNumberOfElements() + second.getNumberOfElements());
+
+	}
+
+	@Test
+	public void findDTOByIncomeShouldOrderByRequestedProperty() {
+
+		PageRequest pageRequest = PageRequest.of(0, 10, Direction.ASC, "income");
+		Double income = 4000.00;
+
+		Page<ClientDTO> result = repository.findDTOByIncome(income, pageRequest);
+
+		Assertions.assertEquals(countClientByIncome, result.getTotalElements());
+		for (int i = 0; i < result.getNumberOfElements(); i++) {
+			Assertions.assertTrue(result.getContent().get(i).getIncome() >= income);
+			if (i > 0) {
+				Assertions.assertTrue(result.getContent().get(i - 1).getIncome() <= result.getContent().get(i).getIncome());
+			}
+		}
+
+	}
+
+	@Test
+	public void findDTOByIdShouldReturnEmptyWhenIdDoesNotExist() {
+
+		Assertions.assertTrue(repository.findDTOById(existingId).isPresent());
+		Assertions.assertFalse(repository.findDTOById(nonExistingId).isPresent());
+
+	}
+
+	@Test
+	public void findIncomeHistogramShouldGroupClientsByIncomeBucket() {
+
+		List<IncomeBucketDTO> result = repository.findIncomeHistogram(ClientSpecifications.incomeInRange(null, null),
+				1000.0, 100);
+
+		Assertions.assertEquals(7, result.size());
+		Assertions.assertEquals(countTotalClients, result.stream().mapToLong(IncomeBucketDTO::getCount).sum());
+		Assertions.assertEquals(47300.0, result.stream().mapToDouble(IncomeBucketDTO::getSum).sum());
+		IncomeBucketDTO first = result.get(0);
+		Assertions.assertEquals(1000.0, first.getLowerBound());
+		Assertions.assertEquals(2000.0, first.getUpperBound());
+		Assertions.assertEquals(3L, first.getCount());
+		Assertions.assertEquals(1500.0, first.getAverage());
+
+	}
+
+	@Test
+	public void findIncomeHistogramShouldApplyRangeAndChildrenFilters() {
+
+		List<IncomeBucketDTO> result = repository.findIncomeHistogram(
+				ClientSpecifications.incomeInRange(2000.0, 10000.0).and(ClientSpecifications.childrenEqual(0)), 5000.0,
+				100);
+
+		Assertions.assertEquals(2, result.size());
+		Assertions.assertEquals(0.0, result.get(0).getLowerBound());
+		Assertions.assertEquals(1L, result.get(0).getCount());
+		Assertions.assertEquals(2500.0, result.get(0).getMax());
+		Assertions.assertEquals(5000.0, result.get(1).getLowerBound());
+		Assertions.assertEquals(2L, result.get(1).getCount());
+		Assertions.assertEquals(12500.0, result.get(1).getSum());
+
+	}
+
+	@Test
+	public void findIncomeHistogramShouldReturnAtMostMaxResultsBuckets() {
+
+		List<IncomeBucketDTO> result = repository.findIncomeHistogram(ClientSpecifications.incomeInRange(null, null),
+				0.01, 3);
+
+		Assertions.assertEquals(3, result.size());
+		Assertions.assertTrue(result.get(0).getLowerBound() < result.get(2).getLowerBound());
+
+	}
+
 	@Test
 	public void saveShouldPersistWithAutoIncrementWhenIdIsNull() {
 
@@ -209,5 +435,38 @@ public class ClientRepositoryTests {
 		Assertions.assertSame(result.get(), client);
 
 	}
+	
+	@Test
+	public void findDTOByCpfShouldReturnClientWhenCpfExists() {
+
+		Optional<ClientDTO> result = repository.findDTOByCpf("10619244881");
+
+		Assertions.assertTrue(result.isPresent());
+		Assertions.assertEquals(1L, result.get().getId());
+
+	}
+
+	@Test
+	public void existsByCpfShouldFindRegisteredCpfOnly() {
+
+		Assertions.assertTrue(repository.existsByCpf("10619244881"));
+		Assertions.assertFalse(repository.existsByCpf("00000000000"));
+
+	}
+	
+	@Test
+	public void findSliceShouldReportHasNextWithoutCounting() {
+
+		Slice<ClientDTO> first = repository.findSlice(ClientSpecifications.all(), PageRequest.of(0, 10, Direction.ASC, "name"));
+		Slice<ClientDTO> last = repository.findSlice(ClientSpecifications.all(), PageRequest.of(1, 10, Direction.ASC, "name"));
+
+		Assertions.assertEquals(10, first.getNumberOfElements());
+		Assertions.assertTrue(first.hasNext());
+		Assertions.assertEquals(countTotalClients - 10, last.getNumberOfElements());
+		Assertions.assertFalse(last.hasNext());
+		Assertions.assertEquals(repository.findAllDTO(PageRequest.of(0, 10, Direction.ASC, "name")).getContent().get(0).getId(),
+				first.getContent().get(0).getId());
+
+	}
 
 }
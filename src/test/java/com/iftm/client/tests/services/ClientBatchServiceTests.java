@@ -0,0 +1,120 @@
+package com.iftm.client.tests.services;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.iftm.client.dto.BatchItemResultDTO;
+import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.repositories.ClientRepository;
+import com.iftm.client.services.ClientBatchService;
+import com.iftm.client.tests.factory.ClientFactory;
+
+@SpringBootTest(properties = "client.batch.chunk-size=2")
+@Transactional
+public class ClientBatchServiceTests {
+
+	@Autowired
+	private ClientBatchService service;
+
+	@Autowired
+	private ClientRepository repository;
+
+	private Long existingId;
+	private Long nonExistingId;
+	private Long countTotalClients;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		existingId = 1L;
+		nonExistingId = Long.MAX_VALUE;
+		countTotalClients = repository.count();
+	}
+
+	@Test
+	public void validateChunkSizeShouldFailWhenChunkSizeIsNotPositive() {
+
+		ClientBatchService misconfigured = new ClientBatchService();
+		ReflectionTestUtils.setField(misconfigured, "chunkSize", 0);
+
+		Assertions.assertThrows(IllegalStateException.class, misconfigured::validateChunkSize);
+
+	}
+
+	@Test
+	public void insertAllShouldPersistEveryItemAcrossChunks() {
+
+		List<ClientDTO> dtos = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			ClientDTO dto = ClientFactory.createClientDTO(null);
+			dto.setCpf("1234567890" + i);
+			dtos.add(dto);
+		}
+
+		List<BatchItemResultDTO> results = service.insertAll(dtos);
+
+		Assertions.assertEquals(5, results.size());
+		for (int i = 0; i < results.size(); i++) {
+			Assertions.assertEquals(i, results.get(i).getIndex());
+			Assertions.assertEquals(BatchItemResultDTO.CREATED, results.get(i).getStatus());
+			Assertions.assertNotNull(results.get(i).getId());
+		}
+		Assertions.assertEquals(countTotalClients + 5, repository.count());
+
+	}
+
+	@Test
+	public void insertAllShouldNormalizeCpfAndFailItemsWithInvalidCpf() {
+
+		ClientDTO formatted = ClientFactory.createClientDTO(null);
+		formatted.setCpf("987.654.321-00");
+		ClientDTO other = ClientFactory.createClientDTO(null);
+		other.setCpf("98765432111");
+		ClientDTO invalid = ClientFactory.createClientDTO(null);
+		invalid.setCpf("123");
+
+		List<BatchItemResultDTO> results = service.insertAll(List.of(formatted, other, invalid));
+
+		Assertions.assertEquals(BatchItemResultDTO.CREATED, results.get(0).getStatus());
+		Assertions.assertEquals("98765432100", repository.findById(results.get(0).getId()).get().getCpf());
+		Assertions.assertEquals(BatchItemResultDTO.FAILED, results.get(2).getStatus());
+		Assertions.assertEquals("CPF must have 11 digits", results.get(2).getMessage());
+
+	}
+
+	@Test
+	public void updateAllShouldReportNotFoundPerItem() {
+
+		ClientDTO existing = ClientFactory.createClientDTO(existingId);
+		existing.setName("Nome Atualizado");
+		ClientDTO nonExisting = ClientFactory.createClientDTO(nonExistingId);
+
+		List<BatchItemResultDTO> results = service.updateAll(List.of(existing, nonExisting));
+
+		Assertions.assertEquals(BatchItemResultDTO.UPDATED, results.get(0).getStatus());
+		Assertions.assertEquals(BatchItemResultDTO.NOT_FOUND, results.get(1).getStatus());
+		Assertions.assertEquals("Nome Atualizado", repository.findById(existingId).get().getName());
+
+	}
+
+	@Test
+	public void deleteAllShouldDeleteExistingAndReportMissingIds() {
+
+		List<BatchItemResultDTO> results = service.deleteAll(List.of(existingId, nonExistingId, 2L));
+
+		Assertions.assertEquals(BatchItemResultDTO.DELETED, results.get(0).getStatus());
+		Assertions.assertEquals(BatchItemResultDTO.NOT_FOUND, results.get(1).getStatus());
+		Assertions.assertEquals(BatchItemResultDTO.DELETED, results.get(2).getStatus());
+		Assertions.assertFalse(repository.existsById(existingId));
+		Assertions.assertEquals(countTotalClients - 2, repository.count());
+
+	}
+
+}
@@ -0,0 +1,101 @@
+package com.iftm.client.tests.services;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.iftm.client.services.ClientNameIndex;
+
+public class ClientNameIndexTests {
+
+	private ClientNameIndex index;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		index = new ClientNameIndex(true, 3);
+		index.put(1L, "Conceição Evaristo");
+		index.put(2L, "Lázaro Ramos");
+		index.put(3L, "Clarice Lispector");
+	}
+
+	@Test
+	public void searchShouldIgnoreAccentsAndCase() {
+
+		Assertions.assertEquals(Set.of(1L), index.search("CONCEICAO"));
+		Assertions.assertEquals(Set.of(2L), index.search("lázaro"));
+
+	}
+
+	@Test
+	public void searchShouldMatchSubstringsOnly() {
+
+		Assertions.assertEquals(Set.of(3L), index.search("lispe"));
+		Assertions.assertTrue(index.search("lispex").isEmpty());
+		Assertions.assertTrue(index.search("ramos evaristo").isEmpty());
+
+	}
+
+	@Test
+	public void searchShouldReturnNullWhenTextIsShorterThanGram() {
+
+		Assertions.assertNull(index.search("cl"));
+
+	}
+
+	@Test
+	public void searchShouldReturnNullWhenDisabled() {
+
+		ClientNameIndex disabled = new ClientNameIndex(false, 3);
+		disabled.put(1L, "Conceição Evaristo");
+
+		Assertions.assertNull(disabled.search("conceicao"));
+
+	}
+
+	@Test
+	public void searchShouldReturnNullWhenMoreThanMaxCandidatesMatch() {
+
+		ClientNameIndex capped = new ClientNameIndex(true, 3, 1);
+		capped.put(1L, "Ana Silva");
+		capped.put(2L, "Ana Souza");
+
+		Assertions.assertNull(capped.search("ana"));
+		Assertions.assertEquals(Set.of(1L), capped.search("silva"));
+
+	}
+
+	@Test
+	public void searchShouldReturnNullBeforeFirstRebuild() {
+
+		ClientNameIndex notBuilt = new ClientNameIndex();
+		ReflectionTestUtils.setField(notBuilt, "enabled", true);
+		notBuilt.put(1L, "Conceição Evaristo");
+
+		Assertions.assertFalse(notBuilt.isReady());
+		Assertions.assertNull(notBuilt.search("conceicao"));
+
+	}
+
+	@Test
+	public void putShouldReplacePreviousNameWhenIdExists() {
+
+		index.put(2L, "Gilberto Gil");
+
+		Assertions.assertTrue(index.search("lazaro").isEmpty());
+		Assertions.assertEquals(Set.of(2L), index.search("gilberto"));
+
+	}
+
+	@Test
+	public void removeShouldDropIdFromResults() {
+
+		index.remove(1L);
+
+		Assertions.assertTrue(index.search("evaristo").isEmpty());
+
+	}
+
+}
@@ -0,0 +1,166 @@
+package com.iftm.client.tests.services;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.iftm.client.config.CacheConfig;
+import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.entities.Client;
+import com.iftm.client.repositories.ClientRepository;
+import com.iftm.client.services.ClientService;
+import com.iftm.client.services.exceptions.InvalidParameterException;
+import com.iftm.client.tests.factory.ClientFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest
+public class ClientServiceCacheTests {
+
+	@Autowired
+	private ClientService service;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@MockBean
+	private ClientRepository repository;
+
+	private Long existingId;
+	private Client client;
+	private PageRequest pageRequest;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		existingId = 1L;
+		client = ClientFactory.createClient();
+		pageRequest = PageRequest.of(0, 6);
+
+		cacheManager.getCache(CacheConfig.CLIENTS).clear();
+		cacheManager.getCache(CacheConfig.CLIENT_PAGES).clear();
+		cacheManager.getCache(CacheConfig.CLIENT_COUNTS).clear();
+
+		Mockito.when(repository.findDTOById(existingId)).thenReturn(Optional.of(new ClientDTO(client)));
+		Mockito.when(repository.findAllDTO(pageRequest)).thenReturn(new PageImpl<>(List.of(new ClientDTO(client))));
+		Mockito.when(repository.updateById(ArgumentMatchers.eq(existingId), ArgumentMatchers.any(),
+				ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any()))
+				.thenReturn(1);
+		Mockito.when(repository.deleteClientById(existingId)).thenReturn(1);
+	}
+
+	@Test
+	public void findByIdShouldHitDatabaseOnceWhenCalledRepeatedly() {
+
+		service.findById(existingId);
+		service.findById(existingId);
+
+		Mockito.verify(repository, Mockito.times(1)).findDTOById(existingId);
+
+	}
+
+	@Test
+	public void findAllPagedShouldHitDatabaseOnceWhenCalledRepeatedly() {
+
+		service.findAllPaged(pageRequest);
+		service.findAllPaged(pageRequest);
+
+		Mockito.verify(repository, Mockito.times(1)).findAllDTO(pageRequest);
+
+	}
+
+	@Test
+	public void findAllPagedWithFieldsShouldShareCacheEntryForEquivalentFields() {
+
+		Mockito.when(repository.findFieldsPage(ArgumentMatchers.any(), ArgumentMatchers.any(),
+				ArgumentMatchers.eq(pageRequest))).thenReturn(new PageImpl<>(List.of(Map.of("id", existingId))));
+
+		service.findAllPaged(pageRequest, "name,income");
+		service.findAllPaged(pageRequest, " name, income,name,id");
+
+		Mockito.verify(repository, Mockito.times(1)).findFieldsPage(ArgumentMatchers.any(),
+				ArgumentMatchers.eq(List.of("id", "name", "income")), ArgumentMatchers.eq(pageRequest));
+
+	}
+
+	@Test
+	public void findAllPagedWithUnknownFieldShouldThrowInvalidParameterException() {
+
+		Assertions.assertThrows(InvalidParameterException.class, () -> {
+			service.findAllPaged(pageRequest, "salary");
+		});
+
+	}
+
+	@Test
+	public void updateShouldEvictCachedClientAndPages() {
+
+		service.findById(existingId);
+		service.findAllPaged(pageRequest);
+
+		service.update(existingId, ClientFactory.createClientDTO(), null);
+
+		service.findById(existingId);
+		service.findAllPaged(pageRequest);
+
+		// a leitura da resposta do update também vai ao banco
+		Mockito.verify(repository, Mockito.times(3)).findDTOById(existingId);
+		Mockito.verify(repository, Mockito.times(2)).findAllDTO(pageRequest);
+
+	}
+
+	@Test
+	public void deleteShouldEvictCachedClient() {
+
+		service.findById(existingId);
+
+		service.delete(existingId);
+
+		Assertions.assertNull(cacheManager.getCache(CacheConfig.CLIENTS).get(existingId));
+
+	}
+
+	@Test
+	public void cacheStatisticsShouldBeExposedAsMetrics() {
+
+		service.findById(existingId);
+		service.findById(existingId);
+
+		double hits = meterRegistry.get("cache.gets").tag("cache", CacheConfig.CLIENTS).tag("result", "hit")
+				.functionCounter().count();
+
+		Assertions.assertTrue(hits >= 1);
+
+	}
+
+	@Test
+	public void countShouldStayCachedAfterWrites() {
+
+		Mockito.when(repository.count(ArgumentMatchers.<Specification<Client>>any())).thenReturn(12L, 13L);
+
+		Long first = service.count(null, 4000.0, null).getCount();
+		service.update(existingId, ClientFactory.createClientDTO(), null);
+		Long second = service.count(null, 4000.0, null).getCount();
+
+		Assertions.assertEquals(12L, first);
+		Assertions.assertEquals(12L, second);
+		Mockito.verify(repository, Mockito.times(1)).count(ArgumentMatchers.<Specification<Client>>any());
+
+	}
+
+}
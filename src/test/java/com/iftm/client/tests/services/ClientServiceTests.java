@@ -1,8 +1,13 @@
 package com.iftm.client.tests.services;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,17 +17,28 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort.Direction;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.dto.ClientFilterDTO;
+import com.iftm.client.dto.IncomeBucketDTO;
+import com.iftm.client.dto.IncomeStatsDTO;
+import com.iftm.client.dto.SliceDTO;
 import com.iftm.client.entities.Client;
+import com.iftm.client.repositories.BirthYears;
 import com.iftm.client.repositories.ClientRepository;
+import com.iftm.client.repositories.KeysetCursor;
+import com.iftm.client.services.ClientNameIndex;
 import com.iftm.client.services.ClientService;
 import com.iftm.client.services.exceptions.DatabaseException;
+import com.iftm.client.services.exceptions.InvalidCursorException;
+import com.iftm.client.services.exceptions.InvalidParameterException;
+import com.iftm.client.services.exceptions.PreconditionFailedException;
 import com.iftm.client.services.exceptions.ResourceNotFoundException;
 import com.iftm.client.tests.factory.ClientFactory;
 
@@ -34,13 +50,16 @@ public class ClientServiceTests {
 
 	@Mock
 	private ClientRepository repository;
+	
+	@Mock
+	private ClientNameIndex nameIndex;
 
 	private Long existingId;
 	private Long nonExistingId;
 	private Long dependentId;
 	
 	private PageRequest pageRequest;
-	private PageImpl<Client> page;
+	private PageImpl<ClientDTO> page;
 	private Client client;
 	private Client nonExistingClient;
 	private ClientDTO clientDTO;
@@ -60,35 +79,37 @@ public class ClientServiceTests {
 		emptyClient = ClientFactory.createEmptyClient();
 		emptyClientDTO = ClientFactory.createEmptyClientDTO();
 		pageRequest = PageRequest.of(0, 6);
-		page = new PageImpl<>(List.of(client));
+		page = new PageImpl<>(List.of(clientDTO));
 		income = 4000.00;
 		
 		//Configurando comportamento para o Mock para método Delete
-		Mockito.doNothing().when(repository).deleteById(existingId);
-		Mockito.doThrow(EmptyResultDataAccessException.class).when(repository).deleteById(nonExistingId);
-		Mockito.doThrow(DataIntegrityViolationException.class).when(repository).deleteById(dependentId);
+		Mockito.when(repository.deleteClientById(existingId)).thenReturn(1);
+		Mockito.when(repository.deleteClientById(nonExistingId)).thenReturn(0);
+		Mockito.doThrow(DataIntegrityViolationException.class).when(repository).deleteClientById(dependentId);
 
 		//Configurando comportamento para o Mock para método FindAll
-		Mockito.when(repository.findAll(pageRequest))
+		Mockito.when(repository.findAllDTO(pageRequest))
 			.thenReturn(page);
 		
 		//Configurando comportamento para o Mock para método FindByIncome
-		Mockito.when(repository.findByIncome(ArgumentMatchers.anyDouble(), ArgumentMatchers.any()))
+		Mockito.when(repository.findDTOByIncome(ArgumentMatchers.anyDouble(), ArgumentMatchers.any()))
 			.thenReturn(page);
 	
-		//Configurando comportamento para o Mock para método FindById
-		Mockito.when(repository.findById(existingId))
-		.thenReturn(Optional.of(client));
-		Mockito.doThrow(ResourceNotFoundException.class).when(repository).findById(nonExistingId);
+		//Índice de nomes desligado por padrão: busca por nome vai para o repositório
+		Mockito.when(nameIndex.search(ArgumentMatchers.any())).thenReturn(null);
 		
-		//Configurando comportamento para o Mock para método Update
-		Mockito.when(repository.save(client))
-		.thenReturn(client);
-		Mockito.doThrow(ResourceNotFoundException.class).when(repository).save(nonExistingClient);
-		
-		Mockito.when(repository.getOne(existingId))
-		.thenReturn(client);
-		Mockito.doThrow(ResourceNotFoundException.class).when(repository).getOne(nonExistingId);
+		//Configurando comportamento para o Mock para método FindById
+		Mockito.when(repository.findDTOById(existingId))
+		.thenReturn(Optional.of(clientDTO));
+		Mockito.when(repository.findDTOById(nonExistingId))
+		.thenReturn(Optional.empty());
+		
+		//Configurando comportamento para o Mock para método Update (um UPDATE por chamada)
+		Mockito.when(repository.updateById(ArgumentMatchers.eq(existingId), ArgumentMatchers.any(),
+				ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any()))
+		.thenReturn(1);
+		Mockito.when(repository.existsById(existingId)).thenReturn(true);
+		Mockito.when(repository.existsById(nonExistingId)).thenReturn(false);
 		
 		//Configurando comportamento para o Mock para método Insert		
 		Mockito.when(repository.save(emptyClient))
@@ -103,7 +124,7 @@ public class ClientServiceTests {
 			service.delete(existingId);
 		});
 		
-		Mockito.verify(repository, Mockito.times(1)).deleteById(existingId);
+		Mockito.verify(repository, Mockito.times(1)).deleteClientById(existingId);
 	}
 	
 	@Test
@@ -113,7 +134,7 @@ public class ClientServiceTests {
 			service.delete(nonExistingId);
 		});
 		
-		Mockito.verify(repository, Mockito.times(1)).deleteById(nonExistingId);
+		Mockito.verify(repository, Mockito.times(1)).deleteClientById(nonExistingId);
 	}
 
 	@Test
@@ -123,7 +144,7 @@ public class ClientServiceTests {
 			service.delete(dependentId);
 		});
 		
-		Mockito.verify(repository, Mockito.times(1)).deleteById(dependentId);
+		Mockito.verify(repository, Mockito.times(1)).deleteClientById(dependentId);
 	}
 	
 	@Test
@@ -134,7 +155,26 @@ public class ClientServiceTests {
 		Assertions.assertNotNull(result);
 		Assertions.assertFalse(result.isEmpty());
 		
-		Mockito.verify(repository, Mockito.times(1)).findAll(pageRequest);
+		Mockito.verify(repository, Mockito.times(1)).findAllDTO(pageRequest);
+		
+	}
+	
+	@Test
+	public void findAllPagedShouldSelectIdAndRequestedFieldsOnly() {
+		
+		service.findAllPaged(pageRequest, "name, income,name");
+		
+		Mockito.verify(repository, Mockito.times(1)).findFieldsPage(ArgumentMatchers.any(),
+				ArgumentMatchers.eq(List.of("id", "name", "income")), ArgumentMatchers.eq(pageRequest));
+		
+	}
+	
+	@Test
+	public void findAllPagedShouldThrowInvalidParameterExceptionWhenFieldIsUnknown() {
+		
+		Assertions.assertThrows(InvalidParameterException.class, () -> {
+			service.findAllPaged(pageRequest, "name,version");
+		});
 		
 	}
 	
@@ -146,7 +186,127 @@ public class ClientServiceTests {
 		Assertions.assertNotNull(result);
 		Assertions.assertFalse(result.isEmpty());
 		
-		Mockito.verify(repository, Mockito.times(1)).findByIncome(income, pageRequest);
+		Mockito.verify(repository, Mockito.times(1)).findDTOByIncome(income, pageRequest);
+		
+	}
+	
+	@Test
+	public void findByNameShouldQueryMatchedIdsWhenNameIndexAnswers() {
+		
+		Mockito.when(nameIndex.search("pablo")).thenReturn(Set.of(existingId));
+		Mockito.when(repository.findDTOByIdIn(Set.of(existingId), pageRequest)).thenReturn(page);
+		
+		Page<ClientDTO> result = service.findByName("pablo", pageRequest);
+		
+		Assertions.assertFalse(result.isEmpty());
+		Mockito.verify(repository, Mockito.never()).findDTOByName(ArgumentMatchers.any(), ArgumentMatchers.any());
+		
+	}
+	
+	@Test
+	public void findByNameShouldFallBackToRepositoryWhenNameIndexCannotAnswer() {
+		
+		Mockito.when(repository.findDTOByName("pa", pageRequest)).thenReturn(page);
+		
+		Page<ClientDTO> result = service.findByName("pa", pageRequest);
+		
+		Assertions.assertFalse(result.isEmpty());
+		Mockito.verify(repository, Mockito.times(1)).findDTOByName("pa", pageRequest);
+		
+	}
+	
+	@Test
+	public void incomeStatsShouldAggregateBucketsReturnedByRepository() {
+		
+		Mockito.when(repository.findIncomeHistogram(ArgumentMatchers.any(), ArgumentMatchers.eq(1000.0),
+				ArgumentMatchers.eq(1001))).thenReturn(List.of(
+				new IncomeBucketDTO(1000.0, 2000.0, 3L, 4500.0, 1500.0, 1500.0, 1500.0),
+				new IncomeBucketDTO(7000.0, 8000.0, 1L, 7500.0, 7500.0, 7500.0, 7500.0)));
+		
+		IncomeStatsDTO result = service.incomeStats(null, null, null, null, 1000.0);
+		
+		Assertions.assertEquals(4L, result.getCount());
+		Assertions.assertEquals(12000.0, result.getSum());
+		Assertions.assertEquals(3000.0, result.getAverage());
+		Assertions.assertEquals(1500.0, result.getMin());
+		Assertions.assertEquals(7500.0, result.getMax());
+		Assertions.assertEquals(2, result.getBuckets().size());
+		
+	}
+	
+	@Test
+	public void incomeStatsShouldThrowInvalidParameterExceptionWhenRangeNeedsTooManyBuckets() {
+		
+		Assertions.assertThrows(InvalidParameterException.class, () -> {
+			service.incomeStats(0.0, 10000.0, null, null, 0.001);
+		});
+		Mockito.verify(repository, Mockito.never()).findIncomeHistogram(ArgumentMatchers.any(),
+				ArgumentMatchers.anyDouble(), ArgumentMatchers.anyInt());
+		
+	}
+	
+	@Test
+	public void incomeStatsShouldThrowInvalidParameterExceptionWhenHistogramHasTooManyBuckets() {
+		
+		List<IncomeBucketDTO> buckets = new ArrayList<>();
+		for (int i = 0; i <= 1000; i++) {
+			buckets.add(new IncomeBucketDTO(i * 0.01, (i + 1) * 0.01, 1L, i * 0.01, i * 0.01, i * 0.01, i * 0.01));
+		}
+		Mockito.when(repository.findIncomeHistogram(ArgumentMatchers.any(), ArgumentMatchers.eq(0.01),
+				ArgumentMatchers.eq(1001)))
+				.thenReturn(buckets);
+		
+		Assertions.assertThrows(InvalidParameterException.class, () -> {
+			service.incomeStats(null, null, null, null, 0.01);
+		});
+		
+	}
+	
+	@Test
+	public void incomeStatsShouldThrowInvalidParameterExceptionWhenBucketSizeIsNotFinite() {
+		
+		Assertions.assertThrows(InvalidParameterException.class, () -> {
+			service.incomeStats(null, null, null, null, Double.NaN);
+		});
+		Assertions.assertThrows(InvalidParameterException.class, () -> {
+			service.incomeStats(null, null, null, null, Double.POSITIVE_INFINITY);
+		});
+		
+	}
+	
+	@Test
+	public void incomeStatsShouldThrowInvalidParameterExceptionWhenRangeIsInverted() {
+		
+		Assertions.assertThrows(InvalidParameterException.class, () -> {
+			service.incomeStats(5000.0, 1000.0, null, null, 1000.0);
+		});
+		Assertions.assertThrows(InvalidParameterException.class, () -> {
+			service.incomeStats(null, null, null, null, 0.0);
+		});
+		
+		Mockito.verifyNoInteractions(repository);
+		
+	}
+	
+	@Test
+	public void findAllKeysetShouldThrowInvalidCursorExceptionWhenCursorIsMalformed() {
+		
+		Assertions.assertThrows(InvalidCursorException.class, () -> {
+			service.findAllKeyset("not-a-cursor", PageRequest.of(0, 6, Direction.ASC, "name"));
+		});
+		
+		Mockito.verifyNoInteractions(repository);
+		
+	}
+	
+	@Test
+	public void findAllKeysetShouldThrowInvalidCursorExceptionWhenCursorWasIssuedForAnotherOrder() {
+		
+		String cursor = KeysetCursor.after(clientDTO, "income", Direction.ASC).encode();
+		
+		Assertions.assertThrows(InvalidCursorException.class, () -> {
+			service.findAllKeyset(cursor, PageRequest.of(0, 6, Direction.ASC, "name"));
+		});
 		
 	}
 	
@@ -158,7 +318,7 @@ public class ClientServiceTests {
 		Assertions.assertNotNull(result);
 		Assertions.assertEquals(result.getId(), existingId);
 		
-		Mockito.verify(repository, Mockito.times(1)).findById(existingId);
+		Mockito.verify(repository, Mockito.times(1)).findDTOById(existingId);
 		
 	}
 	
@@ -169,19 +329,21 @@ public class ClientServiceTests {
 			service.findById(nonExistingId);
 		});
 		
-		Mockito.verify(repository, Mockito.times(1)).findById(nonExistingId);
+		Mockito.verify(repository, Mockito.times(1)).findDTOById(nonExistingId);
 		
 	}
 	
 	@Test
 	public void updateShouldReturnClientDTOWhenIdExists() {
 		
-		ClientDTO result = service.update(existingId, clientDTO);
+		ClientDTO result = service.update(existingId, clientDTO, null);
 		
 		Assertions.assertNotNull(result);
 		Assertions.assertEquals(result.getId(), existingId);
 		
-		Mockito.verify(repository, Mockito.times(1)).save(client);
+		Mockito.verify(repository, Mockito.times(1)).updateById(existingId, clientDTO.getName(), clientDTO.getCpf(),
+				clientDTO.getIncome(), clientDTO.getBirthDate(), clientDTO.getChildren());
+		Mockito.verify(repository, Mockito.never()).save(ArgumentMatchers.any());
 		
 	}
 	
@@ -190,10 +352,12 @@ public class ClientServiceTests {
 		
 		Assertions.assertThrows(ResourceNotFoundException.class, () -> {
 			clientDTO.setId(nonExistingId);
-			service.update(nonExistingId, clientDTO);
+			service.update(nonExistingId, clientDTO, null);
 		});
 		
-		Mockito.verify(repository, Mockito.times(1)).getOne(nonExistingId);
+		Mockito.verify(repository, Mockito.times(1)).updateById(ArgumentMatchers.eq(nonExistingId),
+				ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(),
+				ArgumentMatchers.any());
 		
 	}
 	
@@ -207,5 +371,194 @@ public class ClientServiceTests {
 		Mockito.verify(repository, Mockito.times(1)).save(emptyClient);
 		
 	}
-
+	
+	@Test
+	public void findByYearOfBirthDateShouldThrowInvalidParameterExceptionWhenYearIsOutOfRange() {
+		
+		Assertions.assertThrows(InvalidParameterException.class, () -> {
+			service.findByYearOfBirthDate(999999999, pageRequest);
+		});
+		
+		Mockito.verifyNoInteractions(repository);
+	}
+	
+	@Test
+	public void findByBirthDateShouldQueryHalfOpenRangeWhenBetweenIsGiven() {
+		
+		Mockito.when(repository.findDTOByBirthDateRange(BirthYears.startOf(1950), BirthYears.startOf(1961), pageRequest))
+				.thenReturn(page);
+		
+		Page<ClientDTO> result = service.findByBirthDate(null, null, "1950,1960", pageRequest);
+		
+		Assertions.assertEquals(page, result);
+	}
+	
+	@Test
+	public void findByBirthDateShouldCombineAfterAndBeforeDates() {
+		
+		Instant start = Instant.parse("1990-05-18T00:00:00Z");
+		Instant end = Instant.parse("2000-01-01T00:00:00Z");
+		Mockito.when(repository.findDTOByBirthDateRange(start, end, pageRequest)).thenReturn(page);
+		
+		Page<ClientDTO> result = service.findByBirthDate("1990-05-17", "2000", null, pageRequest);
+		
+		Assertions.assertEquals(page, result);
+	}
+	
+	@Test
+	public void findByBirthDateShouldThrowInvalidParameterExceptionWhenValueIsMalformed() {
+		
+		Assertions.assertThrows(InvalidParameterException.class, () -> {
+			service.findByBirthDate("17/05/1990", null, null, pageRequest);
+		});
+		Assertions.assertThrows(InvalidParameterException.class, () -> {
+			service.findByBirthDate(null, null, "1960,1950", pageRequest);
+		});
+		Assertions.assertThrows(InvalidParameterException.class, () -> {
+			service.findByBirthDate(null, null, "1960", pageRequest);
+		});
+	}
+	
+	@Test
+	public void searchShouldIssueSingleQueryUsingNameIndexIds() {
+		
+		Mockito.when(nameIndex.search("car")).thenReturn(Set.of(4L));
+		Mockito.when(repository.findPage(ArgumentMatchers.any(), ArgumentMatchers.eq(pageRequest))).thenReturn(page);
+		
+		Page<ClientDTO> result = service.search(new ClientFilterDTO("car", 1000.0, null, "1990", null, null, 0),
+				pageRequest);
+		
+		Assertions.assertEquals(page, result);
+		Mockito.verify(repository, Mockito.times(1)).findPage(ArgumentMatchers.any(), ArgumentMatchers.eq(pageRequest));
+		Mockito.verify(repository, Mockito.never()).findDTOByName(ArgumentMatchers.any(), ArgumentMatchers.any());
+	}
+	
+	@Test
+	public void searchShouldThrowInvalidParameterExceptionWhenIncomeRangeIsInverted() {
+		
+		Assertions.assertThrows(InvalidParameterException.class, () -> {
+			service.search(new ClientFilterDTO(null, 5000.0, 1000.0, null, null, null, null), pageRequest);
+		});
+	}
+	
+	@Test
+	public void findByCpfShouldNormalizeCpfBeforeQuerying() {
+		
+		Mockito.when(repository.findDTOByCpf("12345678900")).thenReturn(Optional.of(clientDTO));
+		
+		ClientDTO result = service.findByCpf("123.456.789-00");
+		
+		Assertions.assertEquals(clientDTO, result);
+		
+	}
+	
+	@Test
+	public void findByCpfShouldThrowInvalidParameterExceptionWhenCpfIsMalformed() {
+		
+		Assertions.assertThrows(InvalidParameterException.class, () -> {
+			service.findByCpf("123");
+		});
+		
+		Mockito.verify(repository, Mockito.never()).findDTOByCpf(ArgumentMatchers.any());
+		
+	}
+	
+	@Test
+	public void insertShouldThrowDatabaseExceptionWhenCpfIsAlreadyRegistered() {
+		
+		Mockito.when(repository.existsByCpf(clientDTO.getCpf())).thenReturn(true);
+		
+		Assertions.assertThrows(DatabaseException.class, () -> {
+			service.insert(clientDTO);
+		});
+		
+		Mockito.verify(repository, Mockito.never()).save(ArgumentMatchers.any());
+		
+	}
+	
+	@Test
+	public void updateShouldThrowPreconditionFailedExceptionWhenVersionDoesntMatch() {
+		
+		Mockito.when(repository.updateByIdAndVersion(ArgumentMatchers.eq(existingId), ArgumentMatchers.eq(1L),
+				ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(),
+				ArgumentMatchers.any())).thenReturn(0);
+		
+		Assertions.assertThrows(PreconditionFailedException.class, () -> {
+			service.update(existingId, clientDTO, 1L);
+		});
+		
+		Mockito.verify(repository, Mockito.never()).findDTOById(existingId);
+		
+	}
+	
+	@Test
+	public void updateShouldThrowDatabaseExceptionWhenCpfConstraintIsViolated() {
+		
+		DataIntegrityViolationException violation = new DataIntegrityViolationException("could not execute statement",
+				new ConstraintViolationException("duplicate", null, "PUBLIC.UK_CLIENT_CPF_INDEX_1 ON PUBLIC.TB_CLIENT(CPF)"));
+		Mockito.when(repository.updateById(ArgumentMatchers.eq(existingId), ArgumentMatchers.any(),
+				ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any()))
+		.thenThrow(violation);
+		
+		DatabaseException exception = Assertions.assertThrows(DatabaseException.class, () -> {
+			service.update(existingId, clientDTO, null);
+		});
+		
+		Assertions.assertEquals("CPF already registered", exception.getMessage());
+		
+	}
+	
+	@Test
+	public void patchShouldUpdateOnlyGivenFields() {
+		
+		Mockito.when(repository.updateFields(existingId, null, Map.of("income", 1500.0))).thenReturn(1);
+		ClientDTO values = new ClientDTO();
+		values.setIncome(1500.0);
+		
+		ClientDTO result = service.patch(existingId, values, Set.of("income"), null);
+		
+		Assertions.assertSame(clientDTO, result);
+		Mockito.verify(repository, Mockito.times(1)).updateFields(existingId, null, Map.of("income", 1500.0));
+		Mockito.verify(nameIndex, Mockito.never()).putAfterCommit(ArgumentMatchers.any(), ArgumentMatchers.any());
+		
+	}
+	
+	@Test
+	public void patchShouldThrowResourceNotFoundExceptionWhenIdDoesntExists() {
+		
+		ClientDTO values = new ClientDTO();
+		values.setName("Nome");
+		
+		Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+			service.patch(nonExistingId, values, Set.of("name"), 2L);
+		});
+		
+	}
+	
+	@Test
+	public void patchShouldThrowInvalidParameterExceptionWhenFieldIsNotUpdatable() {
+		
+		Assertions.assertThrows(InvalidParameterException.class, () -> {
+			service.patch(existingId, new ClientDTO(), Set.of("version"), null);
+		});
+		
+		Mockito.verify(repository, Mockito.never()).updateFields(ArgumentMatchers.any(), ArgumentMatchers.any(),
+				ArgumentMatchers.any());
+		
+	}
+	
+	@Test
+	public void findAllSliceShouldNotCountRows() {
+		
+		Mockito.when(repository.findSlice(ArgumentMatchers.any(), ArgumentMatchers.eq(pageRequest)))
+				.thenReturn(new SliceImpl<>(List.of(clientDTO), pageRequest, true));
+		
+		SliceDTO<ClientDTO> result = service.findAllSlice(pageRequest);
+		
+		Assertions.assertTrue(result.getHasNext());
+		Assertions.assertEquals(1, result.getContent().size());
+		Mockito.verify(repository, Mockito.never()).count();
+		Mockito.verify(repository, Mockito.never()).findAllDTO(pageRequest);
+		
+	}
 }
@@ -0,0 +1,132 @@
+package com.iftm.client.tests.services;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.annotation.DirtiesContext;
+
+import com.iftm.client.dto.BatchItemResultDTO;
+import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.dto.WriteStatusDTO;
+import com.iftm.client.services.ClientBatchService;
+import com.iftm.client.services.ClientWriteBehindService;
+import com.iftm.client.services.exceptions.InvalidParameterException;
+import com.iftm.client.services.exceptions.WriteQueueFullException;
+import com.iftm.client.tests.factory.ClientFactory;
+
+@SpringBootTest(properties = { "client.write-behind.enabled=true", "client.write-behind.capacity=2",
+		"client.write-behind.offer-timeout=10ms" })
+@DirtiesContext
+public class ClientWriteBehindServiceTests {
+
+	@Autowired
+	private ClientWriteBehindService service;
+
+	@MockBean
+	private ClientBatchService batchService;
+
+	@Test
+	public void submitInsertShouldRecordResultOfBatch() throws Exception {
+
+		Mockito.when(batchService.insertAll(ArgumentMatchers.any()))
+				.thenReturn(List.of(new BatchItemResultDTO(0, 42L, BatchItemResultDTO.CREATED, null)));
+
+		WriteStatusDTO queued = service.submitInsert(ClientFactory.createClientDTO());
+
+		Assertions.assertEquals(WriteStatusDTO.QUEUED, queued.getStatus());
+		WriteStatusDTO done = awaitDone(queued.getTrackingId());
+		Assertions.assertEquals(BatchItemResultDTO.CREATED, done.getStatus());
+		Assertions.assertEquals(42L, done.getId());
+
+	}
+
+	@Test
+	public void submitInsertShouldRejectInvalidCpfBeforeQueueing() {
+
+		ClientDTO dto = ClientFactory.createClientDTO();
+		dto.setCpf("123.456");
+
+		long accepted = service.queueStatus().getAccepted();
+
+		Assertions.assertThrows(InvalidParameterException.class, () -> service.submitInsert(dto));
+
+		Assertions.assertEquals(accepted, service.queueStatus().getAccepted());
+
+	}
+
+	@Test
+	public void submitShouldThrowWriteQueueFullExceptionWhenQueueIsFull() throws Exception {
+
+		CountDownLatch release = new CountDownLatch(1);
+		Mockito.when(batchService.insertAll(ArgumentMatchers.any())).thenAnswer(invocation -> {
+			release.await(10, TimeUnit.SECONDS);
+			return List.of(new BatchItemResultDTO(0, 1L, BatchItemResultDTO.CREATED, null));
+		});
+
+		try {
+			service.submitInsert(ClientFactory.createClientDTO());
+			awaitEmptyQueue();
+			service.submitInsert(ClientFactory.createClientDTO());
+			service.submitInsert(ClientFactory.createClientDTO());
+
+			Assertions.assertThrows(WriteQueueFullException.class, () -> {
+				service.submitInsert(ClientFactory.createClientDTO());
+			});
+			Assertions.assertEquals(1L, service.queueStatus().getRejected());
+		} finally {
+			release.countDown();
+		}
+
+	}
+
+	@Test
+	@DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+	public void shutdownShouldFlushPendingWritesAndRejectNewOnes() throws Exception {
+
+		Mockito.when(batchService.updateAll(ArgumentMatchers.any())).thenAnswer(invocation -> {
+			List<?> dtos = invocation.getArgument(0);
+			return dtos.size() == 1 ? List.of(new BatchItemResultDTO(0, 1L, BatchItemResultDTO.UPDATED, null))
+					: List.of(new BatchItemResultDTO(0, 1L, BatchItemResultDTO.UPDATED, null),
+							new BatchItemResultDTO(1, 1L, BatchItemResultDTO.UPDATED, null));
+		});
+
+		WriteStatusDTO first = service.submitUpdate(1L, ClientFactory.createClientDTO());
+		WriteStatusDTO second = service.submitUpdate(1L, ClientFactory.createClientDTO());
+		service.shutdown();
+
+		Assertions.assertEquals(BatchItemResultDTO.UPDATED, service.findStatus(first.getTrackingId()).getStatus());
+		Assertions.assertEquals(BatchItemResultDTO.UPDATED, service.findStatus(second.getTrackingId()).getStatus());
+		Assertions.assertEquals(0, service.queueStatus().getPending());
+		Assertions.assertThrows(WriteQueueFullException.class, () -> {
+			service.submitInsert(ClientFactory.createClientDTO());
+		});
+
+	}
+
+	private WriteStatusDTO awaitDone(String trackingId) throws InterruptedException {
+		long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		WriteStatusDTO status = service.findStatus(trackingId);
+		while (WriteStatusDTO.QUEUED.equals(status.getStatus()) && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+			status = service.findStatus(trackingId);
+		}
+		return status;
+	}
+
+	private void awaitEmptyQueue() throws InterruptedException {
+		long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		while (service.queueStatus().getPending() > 0 && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+	}
+
+}
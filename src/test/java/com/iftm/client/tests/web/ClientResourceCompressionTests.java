@@ -0,0 +1,55 @@
+package com.iftm.client.tests.web;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "server.compression.min-response-size=512B")
+public class ClientResourceCompressionTests {
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Test
+	public void findAllPagedShouldBeGzippedWhenAboveThreshold() throws Exception {
+
+		ResponseEntity<byte[]> response = get("/clients?linesPerPage=12");
+
+		Assertions.assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getBody()))) {
+			JsonNode page = new ObjectMapper().readTree(in);
+			Assertions.assertEquals(12, page.get("content").size());
+		}
+	}
+
+	@Test
+	public void findByIdShouldNotBeGzippedWhenBelowThreshold() {
+
+		ResponseEntity<byte[]> response = get("/clients/1");
+
+		Assertions.assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+	}
+
+	private ResponseEntity<byte[]> get(String uri) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+		headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+		return restTemplate.exchange(uri, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+	}
+
+}
@@ -1,19 +1,36 @@
 package com.iftm.client.tests.web;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,14 +38,29 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort.Direction;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.CannotCreateTransactionException;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.iftm.client.dto.BatchItemResultDTO;
 import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.dto.ClientFilterDTO;
+import com.iftm.client.dto.CountDTO;
+import com.iftm.client.dto.IncomeBucketDTO;
+import com.iftm.client.dto.IncomeStatsDTO;
+import com.iftm.client.dto.SliceDTO;
+import com.iftm.client.services.ClientBatchService;
 import com.iftm.client.services.ClientService;
 import com.iftm.client.services.exceptions.DatabaseException;
+import com.iftm.client.services.exceptions.InvalidParameterException;
 import com.iftm.client.services.exceptions.ResourceNotFoundException;
 import com.iftm.client.tests.factory.ClientFactory;
 
@@ -41,6 +73,9 @@ public class ClientResourceTests {
 	@MockBean
 	private ClientService service;
 
+	@MockBean
+	private ClientBatchService batchService;
+
 	@Autowired
 	private ObjectMapper objectMapper;
 
@@ -73,17 +108,37 @@ public class ClientResourceTests {
 		// findAll:page
 		when(service.findAllPaged(any())).thenReturn(page);
 
+		// findAll:keyset
+		when(service.findAllKeyset(eq(""), any())).thenReturn(new SliceDTO<>(List.of(clientDTO), 1, true, "next"));
+
+		// export
+		doAnswer(invocation -> {
+			Consumer<ClientDTO> action = invocation.getArgument(0);
+			action.accept(clientDTO);
+			action.accept(clientDTO);
+			return null;
+		}).when(service).exportAll(any());
+
 		// insert
 		when(service.insert(any())).thenReturn(clientDTO);
 
+		// batch
+		when(batchService.insertAll(any()))
+				.thenReturn(List.of(new BatchItemResultDTO(0, existingId, BatchItemResultDTO.CREATED, null)));
+		when(batchService.deleteAll(any()))
+				.thenReturn(List.of(new BatchItemResultDTO(0, nonExistingId, BatchItemResultDTO.NOT_FOUND, "Id not found")));
+
 		// update
-		when(service.update(eq(existingId), any())).thenReturn(clientDTO);
-		when(service.update(eq(nonExistingId), any())).thenThrow(ResourceNotFoundException.class);
+		when(service.update(eq(existingId), any(), any())).thenReturn(clientDTO);
+		when(service.update(eq(nonExistingId), any(), any())).thenThrow(ResourceNotFoundException.class);
 
 		// delete
 		doNothing().when(service).delete(existingId);
 		doThrow(ResourceNotFoundException.class).when(service).delete(nonExistingId);
 		doThrow(DatabaseException.class).when(service).delete(dependentId);
+
+		// pool esgotado
+		when(service.findById(dependentId)).thenThrow(new CannotCreateTransactionException("Connection is not available"));
 	}
 
 	// INSERT
@@ -111,6 +166,236 @@ public class ClientResourceTests {
 
 	}
 
+	// EXPORT
+
+	@Test
+	public void findByBirthDateAfterShouldReturnAllClientsWhenYearIsMissing() throws Exception {
+
+		ResultActions result = mockMvc.perform(get("/clients/find-by-birth-date-after").accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isOk());
+		verify(service).findAllPaged(any());
+	}
+
+	@Test
+	public void findByBirthDateAfterShouldUseStartOfYearInUtc() throws Exception {
+
+		when(service.findByBirthDateAfter(eq(Instant.parse("2000-01-01T00:00:00Z")), any())).thenReturn(page);
+
+		ResultActions result = mockMvc.perform(get("/clients/find-by-birth-date-after").param("year", "2000")
+				.accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.content[0].name").value(clientDTO.getName()));
+	}
+
+	@Test
+	public void findByBirthDateAfterShouldReturnBadRequestWhenYearIsOutOfRange() throws Exception {
+
+		ResultActions result = mockMvc.perform(get("/clients/find-by-birth-date-after").param("year", "999999999")
+				.accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	public void findByBirthDateShouldReturnBadRequestWhenRangeIsMalformed() throws Exception {
+
+		when(service.findByBirthDate(any(), any(), eq("1990"), any()))
+				.thenThrow(new InvalidParameterException("between must be start,end"));
+
+		ResultActions result = mockMvc.perform(get("/clients/find-by-birth-date").param("between", "1990")
+				.accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	public void findAllShouldReturnOnlyRequestedFieldsWhenFieldsIsGiven() throws Exception {
+
+		Map<String, Object> row = new LinkedHashMap<>();
+		row.put("id", existingId);
+		row.put("name", clientDTO.getName());
+		when(service.findAllPaged(any(), eq("name"))).thenReturn(new PageImpl<>(List.of(row)));
+
+		ResultActions result = mockMvc.perform(get("/clients").param("fields", "name").accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.content[0].id").value(existingId));
+		result.andExpect(jsonPath("$.content[0].name").value(clientDTO.getName()));
+		result.andExpect(jsonPath("$.content[0].cpf").doesNotExist());
+		result.andExpect(jsonPath("$.content[0].income").doesNotExist());
+	}
+
+	@Test
+	public void findAllShouldReturnBadRequestWhenFieldIsUnknown() throws Exception {
+
+		when(service.findAllPaged(any(), eq("salary"))).thenThrow(new InvalidParameterException("Unknown field salary"));
+
+		ResultActions result = mockMvc.perform(get("/clients").param("fields", "salary").accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	public void findAllShouldReturnBadRequestWhenFieldsIsGivenWithoutCount() throws Exception {
+
+		ResultActions result = mockMvc.perform(get("/clients").param("count", "false").param("fields", "name")
+				.accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isBadRequest());
+		verify(service, never()).findAllSlice(any());
+	}
+
+	@Test
+	public void searchShouldReturnBadRequestWhenFieldsIsGivenWithCursor() throws Exception {
+
+		ResultActions result = mockMvc.perform(get("/clients/search").param("cursor", "").param("fields", "name")
+				.accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isBadRequest());
+		verify(service, never()).searchKeyset(any(), any(), any());
+	}
+
+	@Test
+	public void searchShouldBindAllFiltersIntoOneServiceCall() throws Exception {
+
+		ClientFilterDTO filter = new ClientFilterDTO("car", 1000.0, 8000.0, null, null, "1950,1999", 0);
+		when(service.search(eq(filter), any())).thenReturn(page);
+
+		ResultActions result = mockMvc.perform(get("/clients/search").param("name", "car")
+				.param("minIncome", "1000").param("maxIncome", "8000").param("between", "1950,1999")
+				.param("children", "0").accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.content[0].name").value(clientDTO.getName()));
+	}
+
+	@Test
+	public void exportShouldStreamOneJsonObjectPerLine() throws Exception {
+
+		MvcResult started = mockMvc.perform(get("/clients/export")).andExpect(request().asyncStarted()).andReturn();
+
+		// sem timeout no export o asyncDispatch não espera o resultado sozinho
+		Assertions.assertEquals(0L, started.getRequest().getAsyncContext().getTimeout());
+		started.getAsyncResult(5000);
+		ResultActions result = mockMvc.perform(asyncDispatch(started));
+
+		result.andExpect(status().isOk());
+		result.andExpect(content().contentType("application/x-ndjson"));
+		String[] lines = result.andReturn().getResponse().getContentAsString().split("\n");
+		Assertions.assertEquals(2, lines.length);
+		Assertions.assertEquals(clientDTO.getName(),
+				objectMapper.readValue(lines[0], ClientDTO.class).getName());
+	}
+
+	@Test
+	public void exportShouldStreamCsvWithHeaderWhenFormatIsCsv() throws Exception {
+
+		MvcResult started = mockMvc.perform(get("/clients/export").param("format", "csv"))
+				.andExpect(request().asyncStarted()).andReturn();
+
+		started.getAsyncResult(5000);
+		ResultActions result = mockMvc.perform(asyncDispatch(started));
+
+		result.andExpect(status().isOk());
+		result.andExpect(content().contentType("text/csv"));
+		String[] lines = result.andReturn().getResponse().getContentAsString().split("\n");
+		Assertions.assertEquals(3, lines.length);
+		Assertions.assertEquals("id,name,cpf,income,birthDate,children", lines[0]);
+	}
+
+	@Test
+	public void exportShouldReturnBadRequestWhenFormatIsUnknown() throws Exception {
+
+		ResultActions result = mockMvc.perform(get("/clients/export").param("format", "xml"));
+
+		result.andExpect(status().isBadRequest());
+		result.andExpect(jsonPath("$.message").value("Unknown export format xml"));
+		verify(service, never()).exportAll(any());
+	}
+
+	// KEYSET
+
+	@Test
+	public void findAllShouldReturnSliceWithNextCursorWhenCursorParamIsPresent() throws Exception {
+
+		ResultActions result = mockMvc
+				.perform(get("/clients").param("cursor", "").param("linesPerPage", "1").accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.content[0].name").value(clientDTO.getName()));
+		result.andExpect(jsonPath("$.hasNext").value(true));
+		result.andExpect(jsonPath("$.nextCursor").value("next"));
+		result.andExpect(jsonPath("$.totalElements").doesNotExist());
+	}
+
+	// BATCH
+
+	@Test
+	public void insertAllShouldReturnPerItemResults() throws Exception {
+
+		String jsonBody = objectMapper.writeValueAsString(List.of(newClientDTO));
+
+		ResultActions result = mockMvc.perform(post("/clients/batch").content(jsonBody)
+				.contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$[0].index").value(0));
+		result.andExpect(jsonPath("$[0].id").value(existingId));
+		result.andExpect(jsonPath("$[0].status").value(BatchItemResultDTO.CREATED));
+	}
+
+	@Test
+	public void deleteAllShouldReturnPerItemResults() throws Exception {
+
+		String jsonBody = objectMapper.writeValueAsString(List.of(nonExistingId));
+
+		ResultActions result = mockMvc.perform(delete("/clients/batch").content(jsonBody)
+				.contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$[0].status").value(BatchItemResultDTO.NOT_FOUND));
+	}
+
+	// PATCH
+
+	@Test
+	public void patchShouldSendOnlyPresentFieldsToService() throws Exception {
+
+		clientDTO.setVersion(4L);
+		when(service.patch(eq(existingId), any(), eq(Set.of("income", "children")), eq(3L))).thenReturn(clientDTO);
+
+		ResultActions result = mockMvc.perform(patch("/clients/{id}", existingId).header("If-Match", "\"1-3\"")
+				.content("{\"income\": 1500.0, \"children\": null}").contentType(MediaType.APPLICATION_JSON)
+				.accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isOk());
+		result.andExpect(header().string("ETag", "\"1-4\""));
+		verify(service).patch(eq(existingId), argThat(dto -> dto.getIncome() == 1500.0 && dto.getChildren() == null),
+				eq(Set.of("income", "children")), eq(3L));
+	}
+
+	@Test
+	public void patchShouldReturnBadRequestWhenBodyIsNotAnObject() throws Exception {
+
+		ResultActions result = mockMvc.perform(patch("/clients/{id}", existingId).content("[1, 2]")
+				.contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	public void patchShouldReturnNotFoundWhenIdDoesNotExist() throws Exception {
+
+		when(service.patch(eq(nonExistingId), any(), any(), any())).thenThrow(ResourceNotFoundException.class);
+
+		ResultActions result = mockMvc.perform(patch("/clients/{id}", nonExistingId).content("{\"name\": \"Nome\"}")
+				.contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isNotFound());
+	}
+
 	// DELETE
 
 	@Test
@@ -130,8 +415,217 @@ public class ClientResourceTests {
 		result.andExpect(status().isNotFound());
 	}
 
+	// INCOME STATS
+
+	@Test
+	public void incomeStatsShouldReturnBadRequestWhenServiceRejectsParameters() throws Exception {
+
+		when(service.incomeStats(any(), any(), any(), any(), eq(0.0)))
+				.thenThrow(new InvalidParameterException("bucketSize must be greater than zero"));
+
+		ResultActions result = mockMvc
+				.perform(get("/clients/income-stats?bucketSize=0").accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isBadRequest());
+		result.andExpect(jsonPath("$.error").value("Invalid parameter"));
+	}
+
+	@Test
+	public void incomeStatsShouldReturnStatsWithBuckets() throws Exception {
+
+		when(service.incomeStats(eq(1000.0), eq(null), eq(1956), eq(0), eq(500.0))).thenReturn(new IncomeStatsDTO(2L,
+				3000.0, 1500.0, 1500.0, 1500.0, 500.0, List.of(new IncomeBucketDTO(1500.0, 2000.0, 2L, 3000.0, 1500.0,
+						1500.0, 1500.0))));
+
+		ResultActions result = mockMvc.perform(get("/clients/income-stats?minIncome=1000&year=1956&children=0&bucketSize=500")
+				.accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.count").value(2));
+		result.andExpect(jsonPath("$.buckets[0].lowerBound").value(1500.0));
+	}
+
+	// FIND BY INCOME
+
+	@Test
+	public void findByIncomeShouldOrderByNameByDefault() throws Exception {
+
+		PageRequest expected = PageRequest.of(0, 12, Direction.ASC, "name");
+		when(service.findByIncome(4000.0, expected)).thenReturn(page);
+
+		ResultActions result = mockMvc.perform(get("/clients/find-by-income").param("income", "4000")
+				.accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.content[0].name").value(clientDTO.getName()));
+	}
+
+	// FIND BY ID
+
+	@Test
+	public void findByIdShouldReturnServiceUnavailableWhenNoConnectionIsAvailable() throws Exception {
+
+		ResultActions result = mockMvc.perform(get("/clients/{id}", dependentId).accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isServiceUnavailable());
+		result.andExpect(jsonPath("$.error").value("Service unavailable"));
+	}
+
+	@Test
+	public void findByIdShouldReturnNotModifiedWhenETagMatches() throws Exception {
+
+		clientDTO.setVersion(3L);
+
+		mockMvc.perform(get("/clients/{id}", existingId).accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(header().string("ETag", "\"1-3\""));
+
+		ResultActions result = mockMvc.perform(get("/clients/{id}", existingId).header("If-None-Match", "\"1-3\"")
+				.accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isNotModified());
+		result.andExpect(content().string(""));
+	}
+
+	@Test
+	public void findAllShouldReturnNotModifiedWhenPageIsUnchanged() throws Exception {
+
+		String eTag = mockMvc.perform(get("/clients").accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader("ETag");
+
+		Assertions.assertNotNull(eTag);
+		mockMvc.perform(get("/clients").header("If-None-Match", eTag).accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	public void findAllShouldReturnBadRequestWhenDirectionIsInvalid() throws Exception {
+
+		ResultActions result = mockMvc.perform(get("/clients").param("direction", "SIDEWAYS")
+				.accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	public void findAllShouldVaryByAcceptAndEncoding() throws Exception {
+
+		ResultActions result = mockMvc.perform(get("/clients").accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isOk());
+		result.andExpect(header().string("Vary", Matchers.containsString("Accept")));
+		result.andExpect(header().string("Vary", Matchers.containsString("Accept-Encoding")));
+	}
+
+	@Test
+	public void findAllShouldReturnSmileWhenRequested() throws Exception {
+
+		MediaType smile = MediaType.parseMediaType("application/x-jackson-smile");
+
+		MvcResult result = mockMvc.perform(get("/clients").accept(smile))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(smile))
+				.andReturn();
+
+		JsonNode page = new ObjectMapper(new SmileFactory()).readTree(result.getResponse().getContentAsByteArray());
+		Assertions.assertEquals(clientDTO.getName(), page.get("content").get(0).get("name").asText());
+	}
+
+	@Test
+	public void findAllShouldReturnCborWhenRequested() throws Exception {
+
+		MvcResult result = mockMvc.perform(get("/clients").accept(MediaType.APPLICATION_CBOR))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+				.andReturn();
+
+		JsonNode page = new ObjectMapper(new CBORFactory()).readTree(result.getResponse().getContentAsByteArray());
+		Assertions.assertEquals(clientDTO.getName(), page.get("content").get(0).get("name").asText());
+	}
+
+	@Test
+	public void findAllShouldKeepJsonAsDefault() throws Exception {
+
+		mockMvc.perform(get("/clients"))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+	}
+
+	@Test
+	public void findAllShouldReturnSliceWithoutTotalWhenCountIsFalse() throws Exception {
+
+		when(service.findAllSlice(any())).thenReturn(new SliceDTO<>(List.of(clientDTO), 12, true, null));
+
+		ResultActions result = mockMvc.perform(get("/clients?count=false").accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.hasNext").value(true));
+		result.andExpect(jsonPath("$.totalElements").doesNotExist());
+	}
+
+	@Test
+	public void countShouldReturnCachedCount() throws Exception {
+
+		when(service.count(eq("pablo"), eq(null), eq(null))).thenReturn(new CountDTO(1L, Instant.parse("2020-01-01T00:00:00Z")));
+
+		ResultActions result = mockMvc.perform(get("/clients/count?name=pablo").accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.count").value(1));
+		result.andExpect(jsonPath("$.countedAt").value("2020-01-01T00:00:00Z"));
+	}
+
+	// FIND BY CPF
+
+	@Test
+	public void findByCpfShouldReturnClientDTOWhenCpfExists() throws Exception {
+
+		when(service.findByCpf("123.456.789-00")).thenReturn(clientDTO);
+
+		ResultActions result = mockMvc.perform(get("/clients/cpf/{cpf}", "123.456.789-00").accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.cpf").value(clientDTO.getCpf()));
+	}
+
+	@Test
+	public void findByCpfShouldReturnNotFoundWhenCpfDoesNotExist() throws Exception {
+
+		when(service.findByCpf("00000000000")).thenThrow(ResourceNotFoundException.class);
+
+		ResultActions result = mockMvc.perform(get("/clients/cpf/{cpf}", "00000000000").accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isNotFound());
+	}
+
 	// UPDATE
 
+	@Test
+	public void updateShouldPassIfMatchVersionToService() throws Exception {
+
+		clientDTO.setVersion(4L);
+		when(service.update(eq(existingId), any(), eq(3L))).thenReturn(clientDTO);
+
+		ResultActions result = mockMvc.perform(put("/clients/{id}", existingId).header("If-Match", "\"1-3\"")
+				.content(objectMapper.writeValueAsString(newClientDTO)).contentType(MediaType.APPLICATION_JSON)
+				.accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isOk());
+		result.andExpect(header().string("ETag", "\"1-4\""));
+	}
+
+	@Test
+	public void updateShouldReturnPreconditionFailedWhenIfMatchIsForAnotherClient() throws Exception {
+
+		ResultActions result = mockMvc.perform(put("/clients/{id}", existingId).header("If-Match", "\"2-3\"")
+				.content(objectMapper.writeValueAsString(newClientDTO)).contentType(MediaType.APPLICATION_JSON)
+				.accept(MediaType.APPLICATION_JSON));
+
+		result.andExpect(status().isPreconditionFailed());
+		result.andExpect(jsonPath("$.error").value("Precondition failed"));
+	}
+
 	@Test
 	public void updateShouldReturnClientDTOWhenIdExists() throws Exception {
 
@@ -0,0 +1,84 @@
+package com.iftm.client.tests.web;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iftm.client.dto.ClientDTO;
+import com.iftm.client.dto.WriteStatusDTO;
+import com.iftm.client.tests.factory.ClientFactory;
+
+@SpringBootTest(properties = "client.write-behind.enabled=true")
+@AutoConfigureMockMvc
+@DirtiesContext
+public class ClientWriteBehindResourceTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	public void insertShouldReturnAcceptedAndTrackingIdThenPersist() throws Exception {
+
+		ClientDTO dto = ClientFactory.createClientDTO(null);
+		dto.setCpf("98765432100");
+
+		String body = mockMvc.perform(post("/clients").content(objectMapper.writeValueAsString(dto))
+				.contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isAccepted())
+				.andExpect(header().string("Location", Matchers.containsString("/clients/writes/")))
+				.andExpect(jsonPath("$.status").value(WriteStatusDTO.QUEUED))
+				.andReturn().getResponse().getContentAsString();
+		String trackingId = objectMapper.readValue(body, WriteStatusDTO.class).getTrackingId();
+
+		WriteStatusDTO done = awaitDone(trackingId);
+		Assertions.assertEquals("CREATED", done.getStatus());
+
+		mockMvc.perform(get("/clients/{id}", done.getId()).accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.cpf").value("98765432100"));
+		mockMvc.perform(get("/clients/writes").accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.completed").value(Matchers.greaterThanOrEqualTo(1)));
+		mockMvc.perform(delete("/clients/{id}", done.getId())).andExpect(status().isNoContent());
+	}
+
+	@Test
+	public void writeStatusShouldReturnNotFoundWhenTrackingIdIsUnknown() throws Exception {
+
+		mockMvc.perform(get("/clients/writes/{trackingId}", "unknown").accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isNotFound());
+	}
+
+	private WriteStatusDTO awaitDone(String trackingId) throws Exception {
+		long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		while (true) {
+			String body = mockMvc.perform(get("/clients/writes/{trackingId}", trackingId)
+					.accept(MediaType.APPLICATION_JSON)).andReturn().getResponse().getContentAsString();
+			WriteStatusDTO status = objectMapper.readValue(body, WriteStatusDTO.class);
+			if (!WriteStatusDTO.QUEUED.equals(status.getStatus()) || System.nanoTime() > deadline) {
+				return status;
+			}
+			Thread.sleep(10);
+		}
+	}
+
+}
@@ -0,0 +1,58 @@
+package com.iftm.client.tests.web;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+public class MetricsEndpointTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	public void prometheusShouldExposeEndpointRepositoryAndPoolMetrics() throws Exception {
+
+		mockMvc.perform(get("/clients/{id}", 1L).accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk());
+		mockMvc.perform(get("/clients").accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk());
+
+		ResultActions result = mockMvc.perform(get("/actuator/prometheus"));
+
+		result.andExpect(status().isOk());
+		result.andExpect(MockMvcResultMatchers.content().string(Matchers.allOf(
+				Matchers.containsString("http_server_requests_seconds_bucket"),
+				Matchers.containsString("uri=\"/clients/{id}\""),
+				Matchers.containsString("client_repository_seconds_bucket"),
+				Matchers.containsString("method=\"findDTOById\""),
+				Matchers.containsString("client_repository_rows_count"),
+				Matchers.containsString("hikaricp_connections_active"))));
+	}
+
+	@Test
+	public void sqlStatsShouldReportStatementsPerRoute() throws Exception {
+
+		mockMvc.perform(get("/clients/find-by-name").param("name", "a").accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk());
+
+		ResultActions result = mockMvc.perform(get("/actuator/sqlstats"));
+
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.routes['GET /clients/find-by-name'].requests").value(Matchers.greaterThan(0)));
+		result.andExpect(jsonPath("$.routes['GET /clients/find-by-name'].maxStatements").isNumber());
+		result.andExpect(jsonPath("$.hibernate.enabled").isBoolean());
+	}
+
+}